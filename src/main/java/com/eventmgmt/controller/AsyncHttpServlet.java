@@ -0,0 +1,196 @@
+package com.eventmgmt.controller;
+
+import com.eventmgmt.dao.pool.DataSourceRouting;
+import com.eventmgmt.dao.profiling.QueryProfile;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.RequestDispatcher;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Base class for servlets whose handlers block on the database. Each request
+ * is put in asynchronous mode and its handler runs on a virtual thread, so a
+ * slow query holds neither a container thread nor a platform thread.
+ * Concurrency towards the database stays bounded by the connection pool.
+ * 
+ * A request that is still running after EVENTMGMT_REQUEST_TIMEOUT_MILLIS
+ * (default 30000) is answered with 503 by the container thread. The handler
+ * keeps running to its end, but whatever it still writes is dropped.
+ * 
+ * Subclasses must be mapped with {@code asyncSupported = true}; otherwise, or
+ * when a filter in the chain does not support async, the handler runs on the
+ * container thread as usual.
+ */
+public abstract class AsyncHttpServlet extends HttpServlet {
+
+    private static final Logger LOGGER = Logger.getLogger(AsyncHttpServlet.class.getName());
+
+    private static final String TIMEOUT_VARIABLE = "EVENTMGMT_REQUEST_TIMEOUT_MILLIS";
+    private static final String TIMEOUT_PROPERTY = "eventmgmt.requestTimeoutMillis";
+    // Above the pool's 5 s checkout timeout, so that waiting for a connection fails first
+    private static final long DEFAULT_TIMEOUT_MILLIS = 30_000;
+    private static final String RETRY_AFTER_SECONDS = "1";
+
+    private static final long TIMEOUT_MILLIS = configuredTimeout();
+
+    private static final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    @Override
+    protected void service(HttpServletRequest request, HttpServletResponse response)
+            throws ServletException, IOException {
+        if (!request.isAsyncSupported()) {
+            super.service(request, response);
+            return;
+        }
+
+        AsyncContext asyncContext = request.startAsync();
+        asyncContext.setTimeout(TIMEOUT_MILLIS);
+        GuardedResponse guarded = new GuardedResponse(response);
+        asyncContext.addListener(new TimeoutListener(guarded));
+        // Thread-bound request state set up by the filters
+        String client = DataSourceRouting.getClient();
+        QueryProfile profile = QueryProfile.current();
+
+        executor.execute(() -> {
+            DataSourceRouting.bindClient(client);
+            QueryProfile.bind(profile);
+            try {
+                super.service(request, guarded);
+            } catch (ServletException | IOException | RuntimeException e) {
+                LOGGER.log(Level.WARNING, "Request " + request.getMethod() + " " + request.getRequestURI()
+                        + " failed", e);
+                sendServerError(guarded);
+            } finally {
+                QueryProfile.bind(null);
+                DataSourceRouting.unbindClient();
+                complete(asyncContext, request);
+            }
+        });
+    }
+
+    /**
+     * Forwards to another resource, such as a JSP, in a way that works both
+     * on the container thread and from the handler's virtual thread.
+     * 
+     * @param request The current request
+     * @param response The current response
+     * @param path The context-relative path to forward to
+     */
+    protected void forward(HttpServletRequest request, HttpServletResponse response, String path)
+            throws ServletException, IOException {
+        if (response instanceof GuardedResponse) {
+            ((GuardedResponse) response).dispatch(request, path);
+        } else if (request.isAsyncStarted()) {
+            request.getAsyncContext().dispatch(path);
+        } else {
+            RequestDispatcher dispatcher = request.getRequestDispatcher(path);
+            dispatcher.forward(request, response);
+        }
+    }
+
+    private static void sendServerError(HttpServletResponse response) {
+        if (response.isCommitted()) {
+            return;
+        }
+        try {
+            response.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+        } catch (IOException | IllegalStateException e) {
+            LOGGER.log(Level.FINE, "Could not send error response", e);
+        }
+    }
+
+    private static long configuredTimeout() {
+        String config = System.getProperty(TIMEOUT_PROPERTY, System.getenv(TIMEOUT_VARIABLE));
+        if (config == null) {
+            return DEFAULT_TIMEOUT_MILLIS;
+        }
+        long timeout;
+        try {
+            timeout = Long.parseLong(config.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalStateException("Invalid " + TIMEOUT_VARIABLE + ": " + config, e);
+        }
+        if (timeout <= 0) {
+            throw new IllegalStateException(TIMEOUT_VARIABLE + " must be positive");
+        }
+        return timeout;
+    }
+
+    private static void complete(AsyncContext asyncContext, HttpServletRequest request) {
+        // Not started any more if the handler dispatched or the container timed the request out
+        if (!request.isAsyncStarted()) {
+            return;
+        }
+        try {
+            asyncContext.complete();
+        } catch (IllegalStateException e) {
+            LOGGER.log(Level.FINE, "Request completed concurrently", e);
+        }
+    }
+
+    /**
+     * Answers a request whose handler is still running when the async
+     * timeout expires, and detaches the handler from the response first.
+     */
+    private static final class TimeoutListener implements AsyncListener {
+
+        private final GuardedResponse guarded;
+
+        TimeoutListener(GuardedResponse guarded) {
+            this.guarded = guarded;
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            // Waits for a write of the handler that is in progress
+            if (!guarded.detach()) {
+                return;
+            }
+            AsyncContext asyncContext = event.getAsyncContext();
+            HttpServletRequest request = (HttpServletRequest) asyncContext.getRequest();
+            HttpServletResponse response = (HttpServletResponse) asyncContext.getResponse();
+            LOGGER.warning("Request " + request.getMethod() + " " + request.getRequestURI() + " timed out after "
+                    + TIMEOUT_MILLIS + " ms");
+            if (!response.isCommitted()) {
+                try {
+                    response.reset();
+                    response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+                    response.setHeader("Retry-After", RETRY_AFTER_SECONDS);
+                    response.setContentType("application/json");
+                    response.setCharacterEncoding("UTF-8");
+                    PrintWriter out = response.getWriter();
+                    out.print("{\"error\":\"Request timed out, please retry later\"}");
+                    out.flush();
+                } catch (IOException | IllegalStateException e) {
+                    LOGGER.log(Level.FINE, "Could not send timeout response", e);
+                }
+            }
+            // A partly written response is cut off here
+            asyncContext.complete();
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            guarded.detach();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
@@ -2,25 +2,22 @@ package com.eventmgmt.controller;
 
 import com.eventmgmt.model.Event;
 import com.eventmgmt.model.EventType;
+import com.eventmgmt.model.dto.EventSummary;
 import com.eventmgmt.repository.EventRepository;
-import com.eventmgmt.util.LocalDateTimeAdapter;
+import com.eventmgmt.util.ConditionalGet;
+import com.eventmgmt.util.JsonResponses;
+import com.eventmgmt.util.json.GsonFactory;
 import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
 import com.google.gson.JsonObject;
-import com.google.gson.JsonParser;
 import java.util.Collections;
 import javax.servlet.ServletException;
 import javax.servlet.annotation.WebServlet;
-import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
-import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.PrintWriter;
 import java.time.LocalDate;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 import java.util.List;
 import java.util.Optional;
@@ -28,8 +25,8 @@ import java.util.Optional;
 /**
  * Controller for handling event-related API requests.
  */
-@WebServlet("/api/events/*")
-public class EventController extends HttpServlet {
+@WebServlet(urlPatterns = "/api/events/*", asyncSupported = true)
+public class EventController extends AsyncHttpServlet {
 
     private EventRepository eventRepository;
     private Gson gson;
@@ -38,10 +35,7 @@ public class EventController extends HttpServlet {
     public void init() throws ServletException {
         super.init();
         eventRepository = new EventRepository();
-        gson = new GsonBuilder()
-                .registerTypeAdapter(LocalDateTime.class, new LocalDateTimeAdapter())
-                .setPrettyPrinting()
-                .create();
+        gson = GsonFactory.getGson();
     }
 
     /**
@@ -49,8 +43,11 @@ public class EventController extends HttpServlet {
      * Supports:
      * - /api/events - Get all events with optional filtering
      * - /api/events/{id} - Get a specific event by ID
+     * Both answer If-None-Match (and If-Modified-Since for a single event)
+     * with 304 Not Modified when the client's copy is current.
      * - /api/events/upcoming?limit=X - Get X upcoming events
      * - /api/events/creator/{userId} - Get events created by a user
+     * Responses are compact JSON; add pretty=true for indented output.
      */
     @Override
     protected void doGet(HttpServletRequest request, HttpServletResponse response)
@@ -68,14 +65,14 @@ public class EventController extends HttpServlet {
             } else if (pathInfo.equals("/upcoming")) {
                 // Handle upcoming events
                 int limit = parseIntParameter(request, "limit", 10);
-                List<Event> events = eventRepository.findUpcomingEvents(limit);
-                out.print(gson.toJson(events));
+                List<EventSummary> events = eventRepository.findUpcomingSummaries(limit);
+                JsonResponses.write(gson, request, response, events);
             } else if (pathInfo.startsWith("/creator/")) {
                 // Handle events by creator
                 try {
                     String userId = pathInfo.substring(9);
                     List<Event> events = eventRepository.findByCreator(userId);
-                    out.print(gson.toJson(events));
+                    JsonResponses.write(gson, request, response, events);
                 } catch (Exception e) {
                     sendError(response, HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
                     return;
@@ -86,7 +83,11 @@ public class EventController extends HttpServlet {
                     Optional<Event> event = eventRepository.findById(eventId);
 
                     if (event.isPresent()) {
-                        out.print(gson.toJson(event.get()));
+                        if (ConditionalGet.checkNotModified(request, response,
+                                ConditionalGet.entityTag(event.get()), event.get().getUpdatedAt())) {
+                            return;
+                        }
+                        JsonResponses.write(gson, request, response, event.get());
                     } else {
                         sendError(response, HttpServletResponse.SC_NOT_FOUND, "Event not found");
                         return;
@@ -122,9 +123,7 @@ public class EventController extends HttpServlet {
 
             // Return the saved event
             response.setStatus(HttpServletResponse.SC_CREATED);
-            PrintWriter out = response.getWriter();
-            out.print(gson.toJson(savedEvent));
-            out.flush();
+            JsonResponses.write(gson, request, response, savedEvent);
         } catch (IllegalArgumentException e) {
             sendError(response, HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
         } catch (Exception e) {
@@ -155,13 +154,11 @@ public class EventController extends HttpServlet {
             if (existingEvent.isPresent()) {
                 // Parse the updated event data
                 Event updatedEvent = parseEventFromRequest(request);
-                updatedEvent.setId(eventId);
+                updatedEvent.setId(existingEvent.get().getId());
 
                 Event savedEvent = eventRepository.save(updatedEvent);
 
-                PrintWriter out = response.getWriter();
-                out.print(gson.toJson(savedEvent));
-                out.flush();
+                JsonResponses.write(gson, request, response, savedEvent);
             } else {
                 sendError(response, HttpServletResponse.SC_NOT_FOUND, "Event not found");
             }
@@ -206,6 +203,14 @@ public class EventController extends HttpServlet {
      * Handles the filtered events endpoint.
      */
     private void handleFilteredEvents(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        // Answer revalidations from the table fingerprint before running the search. The
+        // search is keyed by the same fingerprint, so the body is never older than its tag.
+        String fingerprint = eventRepository.getEventsFingerprint();
+        String entityTag = ConditionalGet.collectionTag(fingerprint, request);
+        if (ConditionalGet.checkNotModified(request, response, entityTag, null)) {
+            return;
+        }
+
         String location = request.getParameter("location");
         String activity = request.getParameter("type"); // Activity is the event type
         String dateStr = request.getParameter("date");
@@ -213,7 +218,7 @@ public class EventController extends HttpServlet {
         String startDateStr = request.getParameter("startDate");
         String endDateStr = request.getParameter("endDate");
 
-        List<Event> events;
+        List<EventSummary> events;
 
         if (startDateStr != null && endDateStr != null) {
             try {
@@ -223,10 +228,10 @@ public class EventController extends HttpServlet {
                 // If other filters exist, use search
                 if (location != null || activity != null) {
                     EventType type = parseEventType(activity);
-                    events = eventRepository.searchEvents(null, location, type, startDate, endDate);
+                    events = eventRepository.searchEventSummaries(fingerprint, null, location, type, startDate, endDate);
                 } else {
                     // Just date range
-                    events = eventRepository.findByDateRange(startDate, endDate);
+                    events = eventRepository.findSummariesByDateRange(fingerprint, startDate, endDate);
                 }
             } catch (DateTimeParseException e) {
                 sendError(response, HttpServletResponse.SC_BAD_REQUEST,
@@ -234,37 +239,17 @@ public class EventController extends HttpServlet {
                 return;
             }
         } else {
-            events = eventRepository.getFilteredEvents(location, activity, dateStr);
+            events = eventRepository.getFilteredEventSummaries(fingerprint, location, activity, dateStr);
         }
 
-        String jsonResponse = gson.toJson(events != null ? events : Collections.emptyList());
-        System.out.println("Sending JSON response: " + jsonResponse);
-
-        response.setContentType("application/json");
-        response.setCharacterEncoding("UTF-8");
-        response.getWriter().print(jsonResponse);
-        response.getWriter().flush();
+        JsonResponses.write(gson, request, response, events != null ? events : Collections.emptyList());
     }
 
     /**
      * Parses an Event object from the request body.
      */
     private Event parseEventFromRequest(HttpServletRequest request) throws IOException {
-        StringBuilder buffer = new StringBuilder();
-        String line;
-
-        try (BufferedReader reader = request.getReader()) {
-            while ((line = reader.readLine()) != null) {
-                buffer.append(line);
-            }
-        }
-
-        String data = buffer.toString();
-        if (data == null || data.trim().isEmpty()) {
-            throw new IllegalArgumentException("Request body is empty");
-        }
-
-        return gson.fromJson(data, Event.class);
+        return JsonResponses.read(gson, request, Event.class);
     }
 
     /**
@@ -0,0 +1,164 @@
+package com.eventmgmt.controller;
+
+import com.eventmgmt.model.Event;
+import com.eventmgmt.repository.EventRepository;
+import com.eventmgmt.util.json.EventAdapter;
+import com.google.gson.JsonObject;
+import com.google.gson.Strictness;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.servlet.ServletException;
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Streams the whole event catalogue as newline-delimited JSON or CSV.
+ * Events are read in keyset pages, each in its own short transaction, and
+ * written as they arrive, so memory use stays flat regardless of the number
+ * of events, and a slow client never holds a pooled connection.
+ */
+@WebServlet("/api/events/export")
+public class EventExportController extends HttpServlet {
+
+    private static final Logger LOGGER = Logger.getLogger(EventExportController.class.getName());
+
+    private static final int BUFFER_SIZE = 16 * 1024;
+
+    private static final EventAdapter EVENT_ADAPTER = new EventAdapter();
+
+    private static final String[] CSV_COLUMNS = { "id", "name", "description", "eventDate", "location",
+            "type", "capacity", "imgUrl", "creatorId", "createdAt", "updatedAt" };
+
+    private EventRepository eventRepository;
+
+    @Override
+    public void init() throws ServletException {
+        super.init();
+        eventRepository = new EventRepository();
+    }
+
+    /**
+     * Handles GET requests for the export.
+     * Supports:
+     * - /api/events/export - NDJSON, one event object per line
+     * - /api/events/export?format=csv - CSV with a header row
+     */
+    @Override
+    protected void doGet(HttpServletRequest request, HttpServletResponse response)
+            throws ServletException, IOException {
+
+        String format = request.getParameter("format");
+        boolean csv = "csv".equalsIgnoreCase(format);
+        if (format != null && !csv && !"ndjson".equalsIgnoreCase(format)) {
+            JsonObject errorJson = new JsonObject();
+            errorJson.addProperty("error", "Unsupported format, use ndjson or csv");
+            response.setContentType("application/json");
+            response.setCharacterEncoding("UTF-8");
+            response.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+            response.getWriter().print(errorJson);
+            return;
+        }
+
+        response.setContentType(csv ? "text/csv" : "application/x-ndjson");
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader("Content-Disposition",
+                "attachment; filename=\"events." + (csv ? "csv" : "ndjson") + "\"");
+
+        Writer out = new BufferedWriter(
+                new OutputStreamWriter(response.getOutputStream(), StandardCharsets.UTF_8), BUFFER_SIZE);
+        try {
+            long count;
+            if (csv) {
+                writeCsvRow(out, CSV_COLUMNS);
+                count = eventRepository.forEachEvent(unchecked(event -> writeCsv(out, event)));
+            } else {
+                JsonWriter json = new JsonWriter(out);
+                // Lenient mode allows one top-level object per line
+                json.setStrictness(Strictness.LENIENT);
+                count = eventRepository.forEachEvent(unchecked(event -> writeJson(json, out, event)));
+            }
+            out.flush();
+            LOGGER.fine(() -> "Exported " + count + " events");
+        } catch (RuntimeException e) {
+            // The status line is usually gone already; drop the connection so
+            // the client sees a truncated download rather than a complete one
+            LOGGER.log(Level.WARNING, "Event export failed", e);
+            throw new ServletException("Event export failed", e);
+        }
+    }
+
+    private static void writeJson(JsonWriter json, Writer out, Event event) throws IOException {
+        EVENT_ADAPTER.write(json, event);
+        json.flush();
+        out.write('\n');
+    }
+
+    private static void writeCsv(Writer out, Event event) throws IOException {
+        writeCsvRow(out,
+                toString(event.getId()),
+                event.getName(),
+                event.getDescription(),
+                toString(event.getEventDate()),
+                event.getLocation(),
+                toString(event.getType()),
+                toString(event.getCapacity()),
+                event.getImgUrl(),
+                toString(event.getCreatorId()),
+                toString(event.getCreatedAt()),
+                toString(event.getUpdatedAt()));
+    }
+
+    /**
+     * Writes one RFC 4180 record, quoting fields that contain a delimiter,
+     * quote or line break.
+     */
+    private static void writeCsvRow(Writer out, String... fields) throws IOException {
+        for (int i = 0; i < fields.length; i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            String field = fields[i];
+            if (field == null) {
+                continue;
+            }
+            if (field.indexOf(',') >= 0 || field.indexOf('"') >= 0
+                    || field.indexOf('\n') >= 0 || field.indexOf('\r') >= 0) {
+                out.write('"');
+                out.write(field.replace("\"", "\"\""));
+                out.write('"');
+            } else {
+                out.write(field);
+            }
+        }
+        out.write("\r\n");
+    }
+
+    private static String toString(Object value) {
+        return value != null ? value.toString() : null;
+    }
+
+    private interface IOConsumer<T> {
+        void accept(T value) throws IOException;
+    }
+
+    private static <T> Consumer<T> unchecked(IOConsumer<T> consumer) {
+        return value -> {
+            try {
+                consumer.accept(value);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        };
+    }
+}
@@ -0,0 +1,443 @@
+package com.eventmgmt.controller;
+
+import com.eventmgmt.model.Event;
+import com.eventmgmt.model.EventType;
+import com.eventmgmt.repository.EventRepository;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.google.gson.Strictness;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Reader;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.servlet.ServletException;
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.hibernate.exception.ConstraintViolationException;
+import org.hibernate.exception.DataException;
+
+/**
+ * Imports events from a newline-delimited JSON feed, one event object per
+ * line. The feed is parsed as it arrives and saved in batches, so neither the
+ * feed nor the result is ever held in memory as a whole.
+ */
+@WebServlet("/api/events/import")
+public class EventImportController extends HttpServlet {
+
+    private static final Logger LOGGER = Logger.getLogger(EventImportController.class.getName());
+
+    /** Valid records saved per transaction. */
+    private static final int BATCH_SIZE = 500;
+
+    private static final int MAX_TEXT_LENGTH = 255;
+
+    /** Longer lines are skipped without being buffered and reported as invalid. */
+    private static final int MAX_LINE_LENGTH = 64 * 1024;
+
+    private static final String CONSTRAINT_ERROR = "Conflicts with existing data";
+    private static final String DATA_ERROR = "Rejected by the database";
+    private static final String SAVE_ERROR = "Could not be saved, please retry";
+
+    private EventRepository eventRepository;
+
+    @Override
+    public void init() throws ServletException {
+        super.init();
+        eventRepository = new EventRepository();
+    }
+
+    /**
+     * Handles POST requests with an NDJSON body. Each event needs name,
+     * location, eventDate (ISO local date-time), type and capacity;
+     * description and imgUrl are optional and ids are always generated.
+     * 
+     * The response is NDJSON as well: one result per input line, in order,
+     * written as each batch commits, followed by a summary line:
+     * - {"line":1,"status":"created","id":"..."}
+     * - {"line":2,"status":"invalid","error":"..."}
+     * - {"line":3,"status":"failed","error":"..."}
+     * - {"summary":{"lines":3,"created":1,"invalid":1,"failed":1}}
+     * 
+     * Invalid lines, including lines longer than {@link #MAX_LINE_LENGTH}
+     * characters, are skipped. If a batch fails to save because of its data,
+     * its records are retried one by one so that a single bad row only fails
+     * itself. Any other failure, such as the database being unreachable,
+     * fails the batch without retries.
+     */
+    @Override
+    protected void doPost(HttpServletRequest request, HttpServletResponse response)
+            throws ServletException, IOException {
+
+        response.setContentType("application/x-ndjson");
+        response.setCharacterEncoding("UTF-8");
+
+        PrintWriter out = response.getWriter();
+        JsonWriter json = new JsonWriter(out);
+        // Lenient mode allows one top-level object per line
+        json.setStrictness(Strictness.LENIENT);
+
+        ImportResult result = new ImportResult(json, out);
+        List<Record> batch = new ArrayList<>(BATCH_SIZE);
+
+        try (Reader body = request.getReader()) {
+            LineReader reader = new LineReader(body, MAX_LINE_LENGTH);
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (reader.wasTooLong()) {
+                    batch.add(new Record(lineNumber, "Line is longer than " + MAX_LINE_LENGTH + " characters"));
+                } else if (!line.trim().isEmpty()) {
+                    try {
+                        batch.add(new Record(lineNumber, parseEvent(line)));
+                    } catch (IllegalArgumentException e) {
+                        // Results must stay in line order, so report after earlier lines
+                        batch.add(new Record(lineNumber, e.getMessage()));
+                    }
+                }
+                if (batch.size() >= BATCH_SIZE) {
+                    saveBatch(batch, result);
+                }
+            }
+            saveBatch(batch, result);
+            result.writeSummary(lineNumber);
+        }
+    }
+
+    private void saveBatch(List<Record> batch, ImportResult result) throws IOException {
+        List<Event> events = new ArrayList<>(batch.size());
+        for (Record record : batch) {
+            if (record.event != null) {
+                events.add(record.event);
+            }
+        }
+
+        RuntimeException failure = null;
+        if (!events.isEmpty()) {
+            try {
+                eventRepository.saveAll(events);
+            } catch (RuntimeException e) {
+                failure = e;
+            }
+        }
+        // Only data errors are worth retrying row by row; anything else, such as
+        // an unreachable database, would fail every row again, slowly
+        boolean retryRows = failure != null && isDataError(failure);
+        if (failure != null) {
+            LOGGER.log(retryRows ? Level.FINE : Level.WARNING,
+                    "Import batch failed" + (retryRows ? ", retrying row by row" : ""), failure);
+        }
+
+        for (Record record : batch) {
+            if (record.event == null) {
+                result.writeInvalid(record.line, record.error);
+            } else if (failure == null) {
+                result.writeCreated(record.line, record.event);
+            } else if (retryRows) {
+                retryRows = saveOne(record, result);
+            } else {
+                result.writeFailed(record.line, SAVE_ERROR);
+            }
+        }
+        result.flush();
+        batch.clear();
+    }
+
+    /**
+     * Saves a record on its own after its batch failed.
+     * 
+     * @return false if the save failed for a reason other than the record's
+     *         data, so the remaining records should not be tried either
+     */
+    private boolean saveOne(Record record, ImportResult result) throws IOException {
+        // The rolled back batch has already assigned an id
+        record.event.setId(null);
+        try {
+            result.writeCreated(record.line, eventRepository.save(record.event));
+            return true;
+        } catch (RuntimeException e) {
+            // The cause may name tables, columns and values, so it is only logged
+            LOGGER.log(Level.FINE, "Import of line " + record.line + " failed", e);
+            if (!isDataError(e)) {
+                result.writeFailed(record.line, SAVE_ERROR);
+                return false;
+            }
+            result.writeFailed(record.line, hasCause(e, ConstraintViolationException.class)
+                    ? CONSTRAINT_ERROR : DATA_ERROR);
+            return true;
+        }
+    }
+
+    /**
+     * Checks whether a save failed because of the data written, rather than
+     * the connection or the database as a whole: a constraint violation or an
+     * invalid value (SQLSTATE classes 23 and 22).
+     */
+    private static boolean isDataError(Throwable e) {
+        if (hasCause(e, ConstraintViolationException.class) || hasCause(e, DataException.class)) {
+            return true;
+        }
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            // A failed batch statement reports the row's error as its next exception
+            for (SQLException sql = cause instanceof SQLException s ? s : null; sql != null;
+                    sql = sql.getNextException()) {
+                String sqlState = sql.getSQLState();
+                if (sqlState != null && (sqlState.startsWith("22") || sqlState.startsWith("23"))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean hasCause(Throwable e, Class<? extends Throwable> type) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (type.isInstance(cause)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Parses and validates one NDJSON line.
+     * 
+     * @throws IllegalArgumentException with a client-facing message if the
+     *                                  line is not a valid event
+     */
+    private Event parseEvent(String line) {
+        JsonObject object;
+        try {
+            JsonElement element = JsonParser.parseString(line);
+            if (!element.isJsonObject()) {
+                throw new IllegalArgumentException("Expected a JSON object");
+            }
+            object = element.getAsJsonObject();
+        } catch (JsonParseException e) {
+            throw new IllegalArgumentException("Malformed JSON");
+        }
+
+        Event event = new Event();
+        event.setName(requiredText(object, "name"));
+        event.setLocation(requiredText(object, "location"));
+        event.setDescription(optionalString(object, "description"));
+        event.setImgUrl(optionalString(object, "imgUrl"));
+
+        String eventDate = requiredString(object, "eventDate");
+        try {
+            event.setEventDate(LocalDateTime.parse(eventDate));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("eventDate must be an ISO local date-time");
+        }
+        String type = requiredString(object, "type");
+        try {
+            event.setType(EventType.valueOf(type.toUpperCase()));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown event type");
+        }
+        int capacity;
+        try {
+            capacity = Integer.parseInt(requiredString(object, "capacity"));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("capacity must be an integer");
+        }
+        if (capacity < 0) {
+            throw new IllegalArgumentException("capacity must not be negative");
+        }
+        event.setCapacity(capacity);
+        return event;
+    }
+
+    private static String requiredText(JsonObject object, String name) {
+        String value = requiredString(object, name).trim();
+        if (value.isEmpty()) {
+            throw new IllegalArgumentException(name + " is required");
+        }
+        if (value.length() > MAX_TEXT_LENGTH) {
+            throw new IllegalArgumentException(name + " must be at most " + MAX_TEXT_LENGTH + " characters");
+        }
+        return value;
+    }
+
+    private static String requiredString(JsonObject object, String name) {
+        String value = optionalString(object, name);
+        if (value == null) {
+            throw new IllegalArgumentException(name + " is required");
+        }
+        return value;
+    }
+
+    private static String optionalString(JsonObject object, String name) {
+        JsonElement element = object.get(name);
+        if (element == null || element.isJsonNull()) {
+            return null;
+        }
+        if (!element.isJsonPrimitive()) {
+            throw new IllegalArgumentException(name + " must be a string");
+        }
+        return element.getAsString();
+    }
+
+    /**
+     * Reads lines like {@link java.io.BufferedReader#readLine()}, but buffers
+     * at most a maximum number of characters per line. The rest of a longer
+     * line is skipped, so a huge line or a body without line breaks cannot
+     * exhaust memory.
+     */
+    private static class LineReader {
+        private final Reader reader;
+        private final int maxLength;
+        private final char[] buffer = new char[8192];
+        private final StringBuilder line = new StringBuilder();
+        private int position;
+        private int limit;
+        private boolean skipLineFeed;
+        private boolean tooLong;
+
+        LineReader(Reader reader, int maxLength) {
+            this.reader = reader;
+            this.maxLength = maxLength;
+        }
+
+        /**
+         * @return The next line without its terminator, or null at the end of
+         *         the input; empty if the line was too long
+         */
+        String readLine() throws IOException {
+            line.setLength(0);
+            tooLong = false;
+            boolean read = false;
+            while (true) {
+                if (position == limit) {
+                    limit = reader.read(buffer);
+                    position = 0;
+                    if (limit <= 0) {
+                        limit = 0;
+                        return read ? finish() : null;
+                    }
+                }
+                char c = buffer[position++];
+                if (skipLineFeed) {
+                    skipLineFeed = false;
+                    if (c == '\n') {
+                        continue;
+                    }
+                }
+                read = true;
+                if (c == '\n' || c == '\r') {
+                    skipLineFeed = c == '\r';
+                    return finish();
+                }
+                if (line.length() < maxLength) {
+                    line.append(c);
+                } else {
+                    tooLong = true;
+                }
+            }
+        }
+
+        /**
+         * @return true if the last line read was longer than the maximum
+         */
+        boolean wasTooLong() {
+            return tooLong;
+        }
+
+        private String finish() {
+            return tooLong ? "" : line.toString();
+        }
+    }
+
+    /**
+     * One input line: either a parsed event or the reason it is invalid.
+     */
+    private static class Record {
+        final int line;
+        final Event event;
+        final String error;
+
+        Record(int line, Event event) {
+            this.line = line;
+            this.event = event;
+            this.error = null;
+        }
+
+        Record(int line, String error) {
+            this.line = line;
+            this.event = null;
+            this.error = error;
+        }
+    }
+
+    /**
+     * Writes per-line results and keeps the totals for the summary.
+     */
+    private static class ImportResult {
+        private final JsonWriter json;
+        private final PrintWriter out;
+        private int created;
+        private int invalid;
+        private int failed;
+
+        ImportResult(JsonWriter json, PrintWriter out) {
+            this.json = json;
+            this.out = out;
+        }
+
+        void writeCreated(int line, Event event) throws IOException {
+            created++;
+            json.beginObject()
+                    .name("line").value(line)
+                    .name("status").value("created")
+                    .name("id").value(event.getId().toString())
+                    .endObject();
+            out.write('\n');
+        }
+
+        void writeInvalid(int line, String error) throws IOException {
+            invalid++;
+            writeError(line, "invalid", error);
+        }
+
+        void writeFailed(int line, String error) throws IOException {
+            failed++;
+            writeError(line, "failed", error);
+        }
+
+        private void writeError(int line, String status, String error) throws IOException {
+            json.beginObject()
+                    .name("line").value(line)
+                    .name("status").value(status)
+                    .name("error").value(error)
+                    .endObject();
+            out.write('\n');
+        }
+
+        void writeSummary(int lines) throws IOException {
+            json.beginObject().name("summary").beginObject()
+                    .name("lines").value(lines)
+                    .name("created").value(created)
+                    .name("invalid").value(invalid)
+                    .name("failed").value(failed)
+                    .endObject().endObject();
+            out.write('\n');
+            flush();
+        }
+
+        void flush() throws IOException {
+            json.flush();
+        }
+    }
+}
@@ -0,0 +1,300 @@
+package com.eventmgmt.controller;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.util.Locale;
+import java.util.concurrent.locks.ReentrantLock;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.ServletRequest;
+import javax.servlet.WriteListener;
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+
+/**
+ * The response handed to an asynchronous handler. Once the request has timed
+ * out and been answered by the container thread, the response is detached:
+ * whatever the handler still writes or sets is dropped, so it never touches
+ * a response that the container may already have recycled for another
+ * request.
+ *
+ * Every call is made under a lock that {@link #detach()} takes as well, so a
+ * write in progress finishes before the timeout answer starts. The lock is a
+ * ReentrantLock rather than a monitor because writes may block on the socket,
+ * which would pin the handler's virtual thread to its carrier.
+ */
+final class GuardedResponse extends HttpServletResponseWrapper {
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private boolean detached; // guarded by lock
+    private PrintWriter writer; // guarded by lock
+    private ServletOutputStream outputStream; // guarded by lock
+
+    /** A call on the wrapped response. */
+    private interface Call {
+        void run() throws IOException;
+    }
+
+    GuardedResponse(HttpServletResponse response) {
+        super(response);
+    }
+
+    /**
+     * Stops all further access to the wrapped response, after any call in
+     * progress has returned.
+     *
+     * @return false if the response was already detached
+     */
+    boolean detach() {
+        lock.lock();
+        try {
+            if (detached) {
+                return false;
+            }
+            detached = true;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Dispatches the request unless the response is detached, in which case
+     * the request is over and there is nothing to dispatch.
+     */
+    void dispatch(ServletRequest request, String path) {
+        guardUnchecked(() -> request.getAsyncContext().dispatch(path));
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+        lock.lock();
+        try {
+            if (writer == null) {
+                writer = new PrintWriter(detached ? Writer.nullWriter() : new GuardedWriter(super.getWriter()));
+            }
+            return writer;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+        lock.lock();
+        try {
+            if (outputStream == null) {
+                outputStream = new GuardedOutputStream(detached ? null : super.getOutputStream());
+            }
+            return outputStream;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean isCommitted() {
+        lock.lock();
+        try {
+            // A detached response has been answered
+            return detached || super.isCommitted();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void setStatus(int sc) {
+        guardUnchecked(() -> super.setStatus(sc));
+    }
+
+    @Override
+    public void sendError(int sc) throws IOException {
+        guard(() -> super.sendError(sc));
+    }
+
+    @Override
+    public void sendError(int sc, String msg) throws IOException {
+        guard(() -> super.sendError(sc, msg));
+    }
+
+    @Override
+    public void sendRedirect(String location) throws IOException {
+        guard(() -> super.sendRedirect(location));
+    }
+
+    @Override
+    public void setHeader(String name, String value) {
+        guardUnchecked(() -> super.setHeader(name, value));
+    }
+
+    @Override
+    public void addHeader(String name, String value) {
+        guardUnchecked(() -> super.addHeader(name, value));
+    }
+
+    @Override
+    public void setDateHeader(String name, long date) {
+        guardUnchecked(() -> super.setDateHeader(name, date));
+    }
+
+    @Override
+    public void addDateHeader(String name, long date) {
+        guardUnchecked(() -> super.addDateHeader(name, date));
+    }
+
+    @Override
+    public void setIntHeader(String name, int value) {
+        guardUnchecked(() -> super.setIntHeader(name, value));
+    }
+
+    @Override
+    public void addIntHeader(String name, int value) {
+        guardUnchecked(() -> super.addIntHeader(name, value));
+    }
+
+    @Override
+    public void addCookie(Cookie cookie) {
+        guardUnchecked(() -> super.addCookie(cookie));
+    }
+
+    @Override
+    public void setContentType(String type) {
+        guardUnchecked(() -> super.setContentType(type));
+    }
+
+    @Override
+    public void setCharacterEncoding(String charset) {
+        guardUnchecked(() -> super.setCharacterEncoding(charset));
+    }
+
+    @Override
+    public void setContentLength(int len) {
+        guardUnchecked(() -> super.setContentLength(len));
+    }
+
+    @Override
+    public void setContentLengthLong(long len) {
+        guardUnchecked(() -> super.setContentLengthLong(len));
+    }
+
+    @Override
+    public void setLocale(Locale loc) {
+        guardUnchecked(() -> super.setLocale(loc));
+    }
+
+    @Override
+    public void setBufferSize(int size) {
+        guardUnchecked(() -> super.setBufferSize(size));
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+        guard(super::flushBuffer);
+    }
+
+    @Override
+    public void reset() {
+        guardUnchecked(super::reset);
+    }
+
+    @Override
+    public void resetBuffer() {
+        guardUnchecked(super::resetBuffer);
+    }
+
+    /**
+     * Makes a call on the wrapped response unless it is detached.
+     */
+    private void guard(Call call) throws IOException {
+        lock.lock();
+        try {
+            if (!detached) {
+                call.run();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void guardUnchecked(Runnable call) {
+        lock.lock();
+        try {
+            if (!detached) {
+                call.run();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private final class GuardedWriter extends Writer {
+
+        private final Writer target;
+
+        GuardedWriter(Writer target) {
+            this.target = target;
+        }
+
+        @Override
+        public void write(char[] buffer, int offset, int length) throws IOException {
+            guard(() -> target.write(buffer, offset, length));
+        }
+
+        @Override
+        public void flush() throws IOException {
+            guard(() -> target.flush());
+        }
+
+        @Override
+        public void close() throws IOException {
+            guard(() -> target.close());
+        }
+    }
+
+    private final class GuardedOutputStream extends ServletOutputStream {
+
+        /** Null if the response was detached before the stream was asked for. */
+        private final ServletOutputStream target;
+
+        GuardedOutputStream(ServletOutputStream target) {
+            this.target = target;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            guard(() -> target.write(b));
+        }
+
+        @Override
+        public void write(byte[] buffer, int offset, int length) throws IOException {
+            guard(() -> target.write(buffer, offset, length));
+        }
+
+        @Override
+        public void flush() throws IOException {
+            guard(() -> target.flush());
+        }
+
+        @Override
+        public void close() throws IOException {
+            guard(() -> target.close());
+        }
+
+        @Override
+        public boolean isReady() {
+            lock.lock();
+            try {
+                return detached || target.isReady();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public void setWriteListener(WriteListener listener) {
+            guardUnchecked(() -> target.setWriteListener(listener));
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package com.eventmgmt.controller;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Locale;
+import java.util.Map;
+
+import javax.servlet.ServletException;
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.EntityStatistics;
+import org.hibernate.stat.Statistics;
+
+import com.eventmgmt.dao.BaseDAO;
+import com.eventmgmt.dao.pool.PoolMetrics;
+import com.eventmgmt.filter.AdmissionControlFilter.RouteClass;
+import com.eventmgmt.metrics.DaoMetrics;
+import com.eventmgmt.metrics.LatencyHistogram;
+import com.eventmgmt.metrics.OperationMetrics;
+import com.eventmgmt.metrics.PrometheusWriter;
+
+import static com.eventmgmt.metrics.PrometheusWriter.seconds;
+
+/**
+ * Exposes DAO, Hibernate, second-level cache and connection pool metrics in
+ * the Prometheus text format for scraping.
+ */
+@WebServlet("/api/metrics")
+public class MetricsController extends HttpServlet {
+
+    private static final double[] QUANTILES = { 0.5, 0.95, 0.99 };
+
+    /**
+     * Handles GET requests for the metrics of this instance.
+     */
+    @Override
+    protected void doGet(HttpServletRequest request, HttpServletResponse response)
+            throws ServletException, IOException {
+
+        response.setContentType(PrometheusWriter.CONTENT_TYPE);
+        response.setHeader("Cache-Control", "no-store");
+
+        try (PrintWriter out = response.getWriter()) {
+            PrometheusWriter writer = new PrometheusWriter(out);
+            writeDaoMetrics(writer);
+            writeHibernateMetrics(writer, BaseDAO.getStatistics());
+            writePoolMetrics(writer, BaseDAO.getPoolMetrics());
+            writeAdmissionMetrics(writer);
+        }
+    }
+
+    private void writeDaoMetrics(PrometheusWriter writer) {
+        Map<String, OperationMetrics> operations = DaoMetrics.getOperations();
+
+        writer.family("eventmgmt_dao_operation_seconds", "summary",
+                "Time spent in a DAO operation, including connection checkout and commit.");
+        operations.forEach((operation, metrics) -> {
+            LatencyHistogram latency = metrics.getLatency();
+            for (double quantile : QUANTILES) {
+                writer.sample("eventmgmt_dao_operation_seconds", seconds(latency.percentile(quantile)),
+                        "operation", operation, "quantile", Double.toString(quantile));
+            }
+            writer.sample("eventmgmt_dao_operation_seconds_sum", seconds(latency.getSum()), "operation", operation);
+            writer.sample("eventmgmt_dao_operation_seconds_count", latency.getCount(), "operation", operation);
+        });
+
+        writer.family("eventmgmt_dao_operation_seconds_max", "gauge",
+                "Slowest execution of a DAO operation since startup.");
+        operations.forEach((operation, metrics) -> writer.sample("eventmgmt_dao_operation_seconds_max",
+                seconds(metrics.getLatency().getMax()), "operation", operation));
+
+        writer.family("eventmgmt_dao_operation_rows_total", "counter",
+                "Entities or rows returned by a DAO operation.");
+        operations.forEach((operation, metrics) -> writer.sample("eventmgmt_dao_operation_rows_total",
+                metrics.getRows(), "operation", operation));
+
+        writer.family("eventmgmt_dao_operation_errors_total", "counter",
+                "DAO operations that failed.");
+        operations.forEach((operation, metrics) -> writer.sample("eventmgmt_dao_operation_errors_total",
+                metrics.getErrors(), "operation", operation));
+    }
+
+    private void writeHibernateMetrics(PrometheusWriter writer, Statistics stats) {
+        counter(writer, "hibernate_sessions_opened_total", "Sessions opened.", stats.getSessionOpenCount());
+        counter(writer, "hibernate_transactions_total", "Transactions completed.", stats.getTransactionCount());
+        counter(writer, "hibernate_flushes_total", "Session flushes.", stats.getFlushCount());
+        counter(writer, "hibernate_connections_obtained_total", "JDBC connections obtained.",
+                stats.getConnectCount());
+        counter(writer, "hibernate_statements_prepared_total", "JDBC statements prepared.",
+                stats.getPrepareStatementCount());
+        counter(writer, "hibernate_queries_executed_total", "HQL and SQL queries executed.",
+                stats.getQueryExecutionCount());
+        writer.family("hibernate_query_execution_max_seconds", "gauge", "Slowest query execution since startup.")
+                .sample("hibernate_query_execution_max_seconds", stats.getQueryExecutionMaxTime() / 1000d);
+        counter(writer, "hibernate_collection_loads_total", "Collections loaded.",
+                stats.getCollectionLoadCount());
+        counter(writer, "hibernate_collection_fetches_total", "Collections fetched by a separate query.",
+                stats.getCollectionFetchCount());
+
+        String[] entityNames = stats.getEntityNames();
+        writer.family("hibernate_entity_loads_total", "counter", "Entities loaded, by entity.");
+        for (String entityName : entityNames) {
+            writer.sample("hibernate_entity_loads_total", stats.getEntityStatistics(entityName).getLoadCount(),
+                    "entity", simpleName(entityName));
+        }
+        writer.family("hibernate_entity_fetches_total", "counter",
+                "Entities fetched by a separate query, by entity. A high ratio to loads hints at N+1 selects.");
+        for (String entityName : entityNames) {
+            writer.sample("hibernate_entity_fetches_total", stats.getEntityStatistics(entityName).getFetchCount(),
+                    "entity", simpleName(entityName));
+        }
+        writer.family("hibernate_entity_writes_total", "counter", "Entities written, by entity and operation.");
+        for (String entityName : entityNames) {
+            EntityStatistics entityStats = stats.getEntityStatistics(entityName);
+            String entity = simpleName(entityName);
+            writer.sample("hibernate_entity_writes_total", entityStats.getInsertCount(), "entity", entity, "op", "insert")
+                    .sample("hibernate_entity_writes_total", entityStats.getUpdateCount(), "entity", entity, "op", "update")
+                    .sample("hibernate_entity_writes_total", entityStats.getDeleteCount(), "entity", entity, "op", "delete");
+        }
+
+        writer.family("hibernate_cache_requests_total", "counter",
+                "Second-level cache lookups and puts, by region and result.");
+        for (String region : stats.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics regionStats = stats.getCacheRegionStatistics(region);
+            if (regionStats == null) {
+                continue;
+            }
+            writer.sample("hibernate_cache_requests_total", regionStats.getHitCount(), "region", region, "result", "hit")
+                    .sample("hibernate_cache_requests_total", regionStats.getMissCount(), "region", region, "result", "miss")
+                    .sample("hibernate_cache_requests_total", regionStats.getPutCount(), "region", region, "result", "put");
+        }
+    }
+
+    private void writePoolMetrics(PrometheusWriter writer, Map<String, PoolMetrics> pools) {
+        writer.family("eventmgmt_pool_connections", "gauge", "Pooled connections, by pool and state.");
+        pools.forEach((pool, metrics) -> writer
+                .sample("eventmgmt_pool_connections", metrics.getActive(), "pool", pool, "state", "active")
+                .sample("eventmgmt_pool_connections", metrics.getIdle(), "pool", pool, "state", "idle")
+                .sample("eventmgmt_pool_connections", metrics.getPending(), "pool", pool, "state", "pending"));
+
+        writer.family("eventmgmt_pool_max_connections", "gauge", "Configured maximum pool size.");
+        pools.forEach((pool, metrics) -> writer.sample("eventmgmt_pool_max_connections", metrics.getMaxSize(),
+                "pool", pool));
+
+        writer.family("eventmgmt_pool_acquires_total", "counter", "Connection checkouts, by pool and result.");
+        pools.forEach((pool, metrics) -> writer
+                .sample("eventmgmt_pool_acquires_total", metrics.getAcquireCount(), "pool", pool, "result", "success")
+                .sample("eventmgmt_pool_acquires_total", metrics.getAcquireFailures(), "pool", pool, "result", "failure"));
+
+        writer.family("eventmgmt_pool_acquire_seconds", "gauge", "Connection checkout latency quantiles.");
+        pools.forEach((pool, metrics) -> writer
+                .sample("eventmgmt_pool_acquire_seconds", seconds(metrics.getAcquireP50Nanos()), "pool", pool, "quantile", "0.5")
+                .sample("eventmgmt_pool_acquire_seconds", seconds(metrics.getAcquireP95Nanos()), "pool", pool, "quantile", "0.95")
+                .sample("eventmgmt_pool_acquire_seconds", seconds(metrics.getAcquireP99Nanos()), "pool", pool, "quantile", "0.99")
+                .sample("eventmgmt_pool_acquire_seconds", seconds(metrics.getAcquireMaxNanos()), "pool", pool, "quantile", "1"));
+    }
+
+    private void writeAdmissionMetrics(PrometheusWriter writer) {
+        RouteClass[] routes = RouteClass.values();
+
+        writer.family("eventmgmt_admission_limit", "gauge", "Current adaptive concurrency limit, by route class.");
+        for (RouteClass route : routes) {
+            writer.sample("eventmgmt_admission_limit", route.getLimit().getLimit(), "route", routeLabel(route));
+        }
+
+        writer.family("eventmgmt_admission_in_flight", "gauge", "Admitted requests in flight, by route class.");
+        for (RouteClass route : routes) {
+            writer.sample("eventmgmt_admission_in_flight", route.getLimit().getInFlight(), "route", routeLabel(route));
+        }
+
+        writer.family("eventmgmt_admission_rejected_total", "counter",
+                "Requests rejected with 503, by route class.");
+        for (RouteClass route : routes) {
+            writer.sample("eventmgmt_admission_rejected_total", route.getLimit().getRejected(),
+                    "route", routeLabel(route));
+        }
+
+        writer.family("eventmgmt_admission_latency_seconds", "gauge",
+                "Short-term average latency driving the limit, by route class.");
+        for (RouteClass route : routes) {
+            writer.sample("eventmgmt_admission_latency_seconds", seconds(route.getLimit().getLatencyNanos()),
+                    "route", routeLabel(route));
+        }
+    }
+
+    private static String routeLabel(RouteClass route) {
+        return route.name().toLowerCase(Locale.ROOT);
+    }
+
+    private static void counter(PrometheusWriter writer, String name, String help, long value) {
+        writer.family(name, "counter", help).sample(name, value);
+    }
+
+    private static String simpleName(String entityName) {
+        return entityName.substring(entityName.lastIndexOf('.') + 1);
+    }
+}
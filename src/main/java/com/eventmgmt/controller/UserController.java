@@ -1,6 +1,5 @@
 package com.eventmgmt.controller;
 
-import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.PrintWriter;
 import java.util.List;
@@ -8,23 +7,26 @@ import java.util.Optional;
 
 import javax.servlet.ServletException;
 import javax.servlet.annotation.WebServlet;
-import javax.servlet.http.HttpServlet;
+import javax.servlet.http.Cookie;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
-import javax.servlet.http.HttpSession;
 
+import com.eventmgmt.dao.KeysetPage;
 import com.eventmgmt.model.User;
 import com.eventmgmt.model.UserRole;
 import com.eventmgmt.repository.UserRepository;
+import com.eventmgmt.util.JsonResponses;
+import com.eventmgmt.util.PasswordHasher;
+import com.eventmgmt.util.SessionTokens;
+import com.eventmgmt.util.json.GsonFactory;
 import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
 import com.google.gson.JsonObject;
 
 /**
  * Controller for handling user-related API requests.
  */
-@WebServlet("/api/users/*")
-public class UserController extends HttpServlet {
+@WebServlet(urlPatterns = "/api/users/*", asyncSupported = true)
+public class UserController extends AsyncHttpServlet {
 
     private UserRepository userRepository;
     private Gson gson;
@@ -33,19 +35,20 @@ public class UserController extends HttpServlet {
     public void init() throws ServletException {
         super.init();
         userRepository = new UserRepository();
-        gson = new GsonBuilder()
-                .setPrettyPrinting()
-                .create();
+        gson = GsonFactory.getGson();
     }
 
     /**
      * Handles GET requests for user operations.
      * Supports:
-     * - /api/users - Get all users (with optional pagination)
+     * - /api/users?after={cursor}&limit=X - Get a page of users; the cursor of
+     *   the next page is returned in the X-Next-Cursor header
+     * - /api/users?offset=X&limit=Y - Get users with offset pagination
      * - /api/users/{id} - Get a specific user by ID
      * - /api/users/email/{email} - Get a user by email
      * - /api/users/role/{role} - Get users by role
      * - /api/users/search?email={pattern} - Search users by email pattern
+     * Responses are compact JSON; add pretty=true for indented output.
      */
     @Override
     protected void doGet(HttpServletRequest request, HttpServletResponse response)
@@ -59,23 +62,43 @@ public class UserController extends HttpServlet {
 
             if (pathInfo == null || pathInfo.equals("/")) {
                 // Handle pagination for listing all users
-                int offset = parseIntParameter(request, "offset", 0);
                 int limit = parseIntParameter(request, "limit", 10);
-                List<User> users = userRepository.getPaginatedUsers(offset, limit);
+                if (limit <= 0) {
+                    sendError(response, HttpServletResponse.SC_BAD_REQUEST, "Limit must be positive");
+                    return;
+                }
+
+                List<User> users;
+                if (request.getParameter("offset") != null) {
+                    int offset = parseIntParameter(request, "offset", 0);
+                    users = userRepository.getPaginatedUsers(offset, limit);
+                } else {
+                    KeysetPage<User> page;
+                    try {
+                        page = userRepository.getUsersAfter(request.getParameter("after"), limit);
+                    } catch (IllegalArgumentException e) {
+                        sendError(response, HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
+                        return;
+                    }
+                    if (page.getNextCursor() != null) {
+                        response.setHeader("X-Next-Cursor", page.getNextCursor());
+                    }
+                    users = page.getItems();
+                }
                 
                 // Add headers for pagination
                 if (request.getParameter("count") != null) {
                     response.setHeader("X-Total-Count", userRepository.countUsers().toString());
                 }
                 
-                out.print(gson.toJson(users));
+                JsonResponses.write(gson, request, response, users);
             } else if (pathInfo.startsWith("/email/")) {
                 // Handle get user by email
                 String email = pathInfo.substring(7);
                 Optional<User> user = userRepository.findByEmail(email);
                 
                 if (user.isPresent()) {
-                    out.print(gson.toJson(user.get()));
+                    JsonResponses.write(gson, request, response, user.get());
                 } else {
                     sendError(response, HttpServletResponse.SC_NOT_FOUND, "User not found");
                     return;
@@ -86,7 +109,7 @@ public class UserController extends HttpServlet {
                     String roleStr = pathInfo.substring(6);
                     UserRole role = UserRole.valueOf(roleStr.toUpperCase());
                     List<User> users = userRepository.findByRole(role);
-                    out.print(gson.toJson(users));
+                    JsonResponses.write(gson, request, response, users);
                 } catch (IllegalArgumentException e) {
                     sendError(response, HttpServletResponse.SC_BAD_REQUEST, "Invalid user role");
                     return;
@@ -100,7 +123,7 @@ public class UserController extends HttpServlet {
                 }
                 
                 List<User> users = userRepository.searchByEmail(emailPattern);
-                out.print(gson.toJson(users));
+                JsonResponses.write(gson, request, response, users);
             } else {
                 // Handle get user by ID
                 try {
@@ -108,7 +131,7 @@ public class UserController extends HttpServlet {
                     Optional<User> user = userRepository.findById(userId);
                     
                     if (user.isPresent()) {
-                        out.print(gson.toJson(user.get()));
+                        JsonResponses.write(gson, request, response, user.get());
                     } else {
                         sendError(response, HttpServletResponse.SC_NOT_FOUND, "User not found");
                         return;
@@ -129,7 +152,9 @@ public class UserController extends HttpServlet {
      * Handles POST requests for user registration and login.
      * Supports:
      * - /api/users/register - Register a new user
-     * - /api/users/login - Authenticate a user
+     * - /api/users/login - Authenticate a user and issue an access and a refresh token
+     * - /api/users/refresh - Issue a new access token for a refresh token
+     * - /api/users/logout - Revoke the user's tokens, on every instance
      * - /api/users - Create a user (admin operation)
      */
     @Override
@@ -158,9 +183,7 @@ public class UserController extends HttpServlet {
                 }
                 
                 response.setStatus(HttpServletResponse.SC_CREATED);
-                PrintWriter out = response.getWriter();
-                out.print(gson.toJson(user));
-                out.flush();
+                JsonResponses.write(gson, request, response, user);
             } else if (pathInfo != null && pathInfo.equals("/login")) {
                 // Handle user login
                 JsonObject requestJson = parseJsonRequest(request);
@@ -173,17 +196,44 @@ public class UserController extends HttpServlet {
                 if (userOpt.isPresent()) {
                     User user = userOpt.get();
                     
-                    // Create a session for the authenticated user
-                    HttpSession session = request.getSession(true);
-                    session.setAttribute("userId", user.getId());
-                    session.setAttribute("userRole", user.getRole().toString());
+                    // Issue signed tokens instead of a session, so any instance can serve the user
+                    writeTokens(request, response, user.getId().toString(), user.getRole());
                     
-                    PrintWriter out = response.getWriter();
-                    out.print(gson.toJson(user));
-                    out.flush();
+                    JsonResponses.write(gson, request, response, user);
                 } else {
                     sendError(response, HttpServletResponse.SC_UNAUTHORIZED, "Invalid credentials");
                 }
+            } else if (pathInfo != null && pathInfo.equals("/refresh")) {
+                // The user is reloaded, so deleted users, role changes and logouts elsewhere are seen
+                SessionTokens.Claims claims = SessionTokens.getInstance()
+                        .verifyRefresh(SessionTokens.refreshTokenOf(request));
+                Optional<User> userOpt = claims != null
+                        ? userRepository.findTokenHolder(claims.userId(), claims.issuedAt())
+                        : Optional.empty();
+                
+                if (userOpt.isPresent()) {
+                    User user = userOpt.get();
+                    writeAccessToken(request, response,
+                            SessionTokens.getInstance().issue(user.getId().toString(), user.getRole()));
+                    response.setStatus(HttpServletResponse.SC_NO_CONTENT);
+                } else {
+                    clearTokenCookies(request, response);
+                    sendError(response, HttpServletResponse.SC_UNAUTHORIZED, "Session expired");
+                }
+            } else if (pathInfo != null && pathInfo.equals("/logout")) {
+                SessionTokens tokens = SessionTokens.getInstance();
+                SessionTokens.Claims claims = SessionTokens.authenticate(request);
+                if (claims == null) {
+                    claims = tokens.verifyRefresh(SessionTokens.refreshTokenOf(request));
+                }
+                if (claims != null) {
+                    // Refused by every instance from now on; other instances accept
+                    // the access token until it expires
+                    userRepository.revokeTokens(claims.userId());
+                }
+                tokens.revoke(SessionTokens.tokenOf(request));
+                clearTokenCookies(request, response);
+                response.setStatus(HttpServletResponse.SC_NO_CONTENT);
             } else {
                 // Handle regular user creation (admin operation)
                 if (!isAdmin(request)) {
@@ -195,10 +245,11 @@ public class UserController extends HttpServlet {
                 User savedUser = userRepository.save(user);
                 
                 response.setStatus(HttpServletResponse.SC_CREATED);
-                PrintWriter out = response.getWriter();
-                out.print(gson.toJson(savedUser));
-                out.flush();
+                JsonResponses.write(gson, request, response, savedUser);
             }
+        } catch (PasswordHasher.BusyException e) {
+            response.setHeader("Retry-After", "1");
+            sendError(response, HttpServletResponse.SC_SERVICE_UNAVAILABLE, e.getMessage());
         } catch (IllegalArgumentException e) {
             sendError(response, HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
         } catch (Exception e) {
@@ -242,12 +293,16 @@ public class UserController extends HttpServlet {
                 boolean success = userRepository.changePassword(userId, currentPassword, newPassword);
                 
                 if (success) {
+                    // All tokens of the user were revoked; keep the caller's own session
+                    SessionTokens.Claims claims = SessionTokens.authenticate(request);
+                    if (claims.userId().equals(userId)) {
+                        SessionTokens.getInstance().revoke(SessionTokens.tokenOf(request));
+                        writeTokens(request, response, userId, claims.role());
+                    }
                     response.setStatus(HttpServletResponse.SC_OK);
                     JsonObject result = new JsonObject();
                     result.addProperty("success", true);
-                    PrintWriter out = response.getWriter();
-                    out.print(gson.toJson(result));
-                    out.flush();
+                    JsonResponses.write(gson, request, response, result);
                 } else {
                     sendError(response, HttpServletResponse.SC_BAD_REQUEST, "Invalid current password");
                 }
@@ -270,13 +325,14 @@ public class UserController extends HttpServlet {
                 Optional<User> updatedUser = userRepository.updateUser(userId, email, password, role);
                 
                 if (updatedUser.isPresent()) {
-                    PrintWriter out = response.getWriter();
-                    out.print(gson.toJson(updatedUser.get()));
-                    out.flush();
+                    JsonResponses.write(gson, request, response, updatedUser.get());
                 } else {
                     sendError(response, HttpServletResponse.SC_NOT_FOUND, "User not found or email already in use");
                 }
             }
+        } catch (PasswordHasher.BusyException e) {
+            response.setHeader("Retry-After", "1");
+            sendError(response, HttpServletResponse.SC_SERVICE_UNAVAILABLE, e.getMessage());
         } catch (IllegalArgumentException e) {
             sendError(response, HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
         } catch (Exception e) {
@@ -325,42 +381,14 @@ public class UserController extends HttpServlet {
      * Parses a User object from the request body.
      */
     private User parseUserFromRequest(HttpServletRequest request) throws IOException {
-        StringBuilder buffer = new StringBuilder();
-        String line;
-
-        try (BufferedReader reader = request.getReader()) {
-            while ((line = reader.readLine()) != null) {
-                buffer.append(line);
-            }
-        }
-
-        String data = buffer.toString();
-        if (data == null || data.trim().isEmpty()) {
-            throw new IllegalArgumentException("Request body is empty");
-        }
-
-        return gson.fromJson(data, User.class);
+        return JsonResponses.read(gson, request, User.class);
     }
 
     /**
      * Parses a JsonObject from the request body.
      */
     private JsonObject parseJsonRequest(HttpServletRequest request) throws IOException {
-        StringBuilder buffer = new StringBuilder();
-        String line;
-
-        try (BufferedReader reader = request.getReader()) {
-            while ((line = reader.readLine()) != null) {
-                buffer.append(line);
-            }
-        }
-
-        String data = buffer.toString();
-        if (data == null || data.trim().isEmpty()) {
-            throw new IllegalArgumentException("Request body is empty");
-        }
-
-        return gson.fromJson(data, JsonObject.class);
+        return JsonResponses.read(gson, request, JsonObject.class);
     }
 
     /**
@@ -393,17 +421,65 @@ public class UserController extends HttpServlet {
         out.flush();
     }
 
+    /**
+     * Starts a session: sends a new access and refresh token in the headers
+     * and the cookies.
+     */
+    private void writeTokens(HttpServletRequest request, HttpServletResponse response, String userId,
+            UserRole role) {
+        SessionTokens tokens = SessionTokens.getInstance();
+        writeAccessToken(request, response, tokens.issue(userId, role));
+        String refreshToken = tokens.issueRefresh(userId, role);
+        response.setHeader("X-Refresh-Token", refreshToken);
+        response.addCookie(refreshCookie(request, refreshToken, (int) SessionTokens.REFRESH_TTL_SECONDS));
+    }
+
+    /**
+     * Sends a new access token in the X-Auth-Token header and the cookie.
+     */
+    private void writeAccessToken(HttpServletRequest request, HttpServletResponse response, String token) {
+        response.setHeader("X-Auth-Token", token);
+        response.addCookie(tokenCookie(request, token, (int) SessionTokens.ACCESS_TTL_SECONDS));
+    }
+
+    private void clearTokenCookies(HttpServletRequest request, HttpServletResponse response) {
+        response.addCookie(tokenCookie(request, "", 0));
+        response.addCookie(refreshCookie(request, "", 0));
+    }
+
+    /**
+     * Creates the cookie that carries the access token for browser clients.
+     */
+    private Cookie tokenCookie(HttpServletRequest request, String token, int maxAgeSeconds) {
+        String contextPath = request.getContextPath();
+        return cookie(SessionTokens.COOKIE_NAME, token, contextPath.isEmpty() ? "/" : contextPath,
+                request, maxAgeSeconds);
+    }
+
+    /**
+     * Creates the cookie that carries the refresh token for browser clients.
+     * It is only sent to the user endpoints, which include refresh and logout.
+     */
+    private Cookie refreshCookie(HttpServletRequest request, String token, int maxAgeSeconds) {
+        return cookie(SessionTokens.REFRESH_COOKIE_NAME, token, request.getContextPath() + "/api/users",
+                request, maxAgeSeconds);
+    }
+
+    private Cookie cookie(String name, String value, String path, HttpServletRequest request, int maxAgeSeconds) {
+        Cookie cookie = new Cookie(name, value);
+        cookie.setHttpOnly(true);
+        cookie.setSecure(request.isSecure());
+        cookie.setPath(path);
+        cookie.setMaxAge(maxAgeSeconds);
+        return cookie;
+    }
+
     /**
      * Checks if the current request is from an admin user.
      */
     private boolean isAdmin(HttpServletRequest request) {
-        HttpSession session = request.getSession(false);
-        if (session == null) {
-            return false;
-        }
-        
-        String userRole = (String) session.getAttribute("userRole");
-        return userRole != null && userRole.equals(UserRole.ADMIN.toString());
+        SessionTokens.Claims claims = SessionTokens.authenticate(request);
+        return claims != null && claims.isAdmin();
     }
 
     /**
@@ -411,15 +487,11 @@ public class UserController extends HttpServlet {
      * A user can access their own details, or an admin can access any user.
      */
     private boolean isUserAuthorized(HttpServletRequest request, String userId) {
-        HttpSession session = request.getSession(false);
-        if (session == null) {
+        SessionTokens.Claims claims = SessionTokens.authenticate(request);
+        if (claims == null) {
             return false;
         }
         
-        String sessionUserId = (String) session.getAttribute("userId");
-        String userRole = (String) session.getAttribute("userRole");
-        
-        return (sessionUserId != null && sessionUserId.equals(userId)) || 
-               (userRole != null && userRole.equals(UserRole.ADMIN.toString()));
+        return claims.userId().equals(userId) || claims.isAdmin();
     }
 }
@@ -1,17 +1,39 @@
 package com.eventmgmt.dao;
 
+import com.eventmgmt.dao.pool.DataSourceRouting;
+import com.eventmgmt.dao.pool.PoolMetrics;
+import com.eventmgmt.dao.pool.RoutingConnectionProvider;
+import com.eventmgmt.dao.profiling.QueryProfile;
+import com.eventmgmt.metrics.DaoMetrics;
 import com.eventmgmt.model.BaseEntity;
 import javax.persistence.EntityManager;
 import javax.persistence.EntityManagerFactory;
 import javax.persistence.EntityTransaction;
 import javax.persistence.Persistence;
 import javax.persistence.Query;
+import org.hibernate.CacheMode;
+import org.hibernate.FlushMode;
+import org.hibernate.Session;
+import org.hibernate.annotations.QueryHints;
+import org.hibernate.cache.spi.access.EntityDataAccess;
+import org.hibernate.engine.jdbc.connections.spi.ConnectionProvider;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
 
 import java.lang.reflect.ParameterizedType;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 /**
  * Base class for Data Access Objects (DAOs) that provides common operations.
@@ -21,10 +43,26 @@ import java.util.function.Function;
  */
 public abstract class BaseDAO<T extends BaseEntity, ID> {
 
-    private static final EntityManagerFactory emf = Persistence.createEntityManagerFactory("eventmgmtPU");
+    private static final Logger LOGGER = Logger.getLogger(BaseDAO.class.getName());
+
+    private static final EntityManagerFactory emf =
+            Persistence.createEntityManagerFactory("eventmgmtPU", connectionOverrides());
+
+    /**
+     * Number of entities written between flushes in bulk operations. Defaults to
+     * the JDBC batch size so that every flush maps to whole JDBC batches.
+     */
+    private static final int DEFAULT_CHUNK_SIZE = Math.max(1,
+            ((SessionFactoryImplementor) emf).getSessionFactoryOptions().getJdbcBatchSize());
+
+    /** Rows read per transaction when streaming over all entities. */
+    private static final int DEFAULT_SCROLL_PAGE_SIZE = 500;
 
     private final Class<T> entityClass;
 
+    /** Prefix of this DAO's operation names in {@link DaoMetrics}. */
+    private final String metricsPrefix = getClass().getSimpleName() + ".";
+
     /**
      * Constructor that determines the entity class type for generic operations.
      */
@@ -34,6 +72,34 @@ public abstract class BaseDAO<T extends BaseEntity, ID> {
                 .getGenericSuperclass()).getActualTypeArguments()[0];
     }
 
+    /**
+     * Reads the primary database's connection settings from the
+     * EVENTMGMT_DB_URL, EVENTMGMT_DB_USER and EVENTMGMT_DB_PASSWORD
+     * environment variables (or the eventmgmt.dbUrl, eventmgmt.dbUser and
+     * eventmgmt.dbPassword system properties). Those that are set override
+     * persistence.xml.
+     */
+    private static Map<String, String> connectionOverrides() {
+        Map<String, String> overrides = new HashMap<>();
+        override(overrides, "eventmgmt.dbUrl", "EVENTMGMT_DB_URL",
+                "javax.persistence.jdbc.url", "hibernate.connection.url");
+        override(overrides, "eventmgmt.dbUser", "EVENTMGMT_DB_USER",
+                "javax.persistence.jdbc.user", "hibernate.connection.username");
+        override(overrides, "eventmgmt.dbPassword", "EVENTMGMT_DB_PASSWORD",
+                "javax.persistence.jdbc.password", "hibernate.connection.password");
+        return overrides;
+    }
+
+    private static void override(Map<String, String> overrides, String property, String variable,
+            String... settings) {
+        String value = System.getProperty(property, System.getenv(variable));
+        if (value != null) {
+            for (String setting : settings) {
+                overrides.put(setting, value);
+            }
+        }
+    }
+
     /**
      * Creates a new EntityManager.
      * 
@@ -46,16 +112,82 @@ public abstract class BaseDAO<T extends BaseEntity, ID> {
     /**
      * Executes a function within a transaction and returns a result.
      * 
-     * @param function The function to execute
+     * @param operation The name of the calling DAO method, used as metrics key
+     * @param function  The function to execute
+     * @return The result of the function
+     */
+    protected <R> R executeInTransaction(String operation, Function<EntityManager, R> function) {
+        return execute(operation, function, false);
+    }
+
+    /**
+     * Executes a read-only function and returns a result. Entities are loaded
+     * read-only so Hibernate keeps no snapshots for dirty checking, and the
+     * session is never flushed.
+     * 
+     * @param operation The name of the calling DAO method, used as metrics key
+     * @param function  The function to execute
+     * @return The result of the function
+     */
+    protected <R> R executeReadOnly(String operation, Function<EntityManager, R> function) {
+        return execute(operation, function, true);
+    }
+
+    /**
+     * Executes a read-only function on the primary database, for reads that
+     * must not see replication lag. Like {@link #executeReadOnly(String, Function)}
+     * otherwise, and it does not count as a write.
+     * 
+     * @param operation The name of the calling DAO method, used as metrics key
+     * @param function  The function to execute
      * @return The result of the function
      */
-    protected <R> R executeInTransaction(Function<EntityManager, R> function) {
+    protected <R> R executeReadOnlyOnPrimary(String operation, Function<EntityManager, R> function) {
+        DataSourceRouting.setPrimaryOnly(true);
+        try {
+            return execute(operation, function, true);
+        } finally {
+            DataSourceRouting.setPrimaryOnly(false);
+        }
+    }
+
+    /**
+     * Runs the function and records its latency, rows returned and failure
+     * under "DaoClass.operation" in {@link DaoMetrics}, and its time in the
+     * request's {@link QueryProfile} if the request is profiled.
+     */
+    private <R> R execute(String operation, Function<EntityManager, R> function, boolean readOnly) {
+        long start = System.nanoTime();
+        R result = null;
+        boolean failed = true;
+        try {
+            result = executeUntimed(function, readOnly);
+            failed = false;
+            return result;
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            DaoMetrics.operation(metricsPrefix + operation).record(elapsed, rowsOf(result), failed);
+            QueryProfile.recordDatabaseTime(elapsed);
+        }
+    }
+
+    private <R> R executeUntimed(Function<EntityManager, R> function, boolean readOnly) {
         EntityManager em = getEntityManager();
+        if (readOnly) {
+            Session session = (Session) em.getDelegate();
+            session.setDefaultReadOnly(true);
+            session.setHibernateFlushMode(FlushMode.MANUAL);
+        }
+        // Read-only work may be routed to a replica when the connection is acquired
+        DataSourceRouting.setReadOnly(readOnly);
         EntityTransaction tx = em.getTransaction();
         try {
             tx.begin();
             R result = function.apply(em);
             tx.commit();
+            if (!readOnly) {
+                DataSourceRouting.recordWrite();
+            }
             return result;
         } catch (Exception e) {
             if (tx.isActive()) {
@@ -63,30 +195,35 @@ public abstract class BaseDAO<T extends BaseEntity, ID> {
             }
             throw new RuntimeException("Transaction failed", e);
         } finally {
+            DataSourceRouting.setReadOnly(false);
             em.close();
         }
     }
 
+    private static long rowsOf(Object result) {
+        if (result instanceof Collection) {
+            return ((Collection<?>) result).size();
+        }
+        if (result instanceof KeysetPage) {
+            return ((KeysetPage<?>) result).getItems().size();
+        }
+        if (result instanceof Optional) {
+            return ((Optional<?>) result).isPresent() ? 1 : 0;
+        }
+        return 0;
+    }
+
     /**
      * Executes an action within a transaction.
      * 
-     * @param action The action to execute
+     * @param operation The name of the calling DAO method, used as metrics key
+     * @param action    The action to execute
      */
-    protected void executeWithoutResult(Consumer<EntityManager> action) {
-        EntityManager em = getEntityManager();
-        EntityTransaction tx = em.getTransaction();
-        try {
-            tx.begin();
+    protected void executeWithoutResult(String operation, Consumer<EntityManager> action) {
+        execute(operation, em -> {
             action.accept(em);
-            tx.commit();
-        } catch (Exception e) {
-            if (tx.isActive()) {
-                tx.rollback();
-            }
-            throw new RuntimeException("Transaction failed", e);
-        } finally {
-            em.close();
-        }
+            return null;
+        }, false);
     }
 
     /**
@@ -96,16 +233,95 @@ public abstract class BaseDAO<T extends BaseEntity, ID> {
      * @return The saved or updated entity
      */
     public T save(T entity) {
-        return executeInTransaction(em -> {
-            if (entity.getId() == null) {
-                em.persist(entity);
-                return entity;
-            } else {
-                return em.merge(entity);
+        return executeInTransaction("save", em -> persistOrMerge(em, entity));
+    }
+
+    /**
+     * Saves a collection of entities in a single transaction, flushing and
+     * clearing the persistence context every {@link #DEFAULT_CHUNK_SIZE}
+     * entities.
+     * 
+     * @param entities The entities to save or update
+     * @return The saved or updated entities
+     */
+    public List<T> saveAll(Collection<T> entities) {
+        return saveAll(entities, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Saves a collection of entities in a single transaction using the given
+     * chunk size.
+     * 
+     * @param entities  The entities to save or update
+     * @param chunkSize The number of entities written between flushes
+     * @return The saved or updated entities
+     * @throws IllegalArgumentException if the chunk size is not positive
+     */
+    public List<T> saveAll(Collection<T> entities, int chunkSize) {
+        checkChunkSize(chunkSize);
+        return executeInTransaction("saveAll", em -> {
+            List<T> saved = new ArrayList<>(entities.size());
+            for (T entity : entities) {
+                saved.add(persistOrMerge(em, entity));
+                if (saved.size() % chunkSize == 0) {
+                    em.flush();
+                    em.clear();
+                }
+            }
+            return saved;
+        });
+    }
+
+    /**
+     * Saves entities from an iterator in a single transaction without holding
+     * them in memory. The persistence context is flushed and cleared every
+     * {@link #DEFAULT_CHUNK_SIZE} entities so heap usage stays flat.
+     * 
+     * @param entities The entities to save or update
+     * @return The number of entities saved
+     */
+    public long saveAll(Iterator<T> entities) {
+        return saveAll(entities, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Saves entities from an iterator in a single transaction using the given
+     * chunk size.
+     * 
+     * @param entities  The entities to save or update
+     * @param chunkSize The number of entities written between flushes
+     * @return The number of entities saved
+     * @throws IllegalArgumentException if the chunk size is not positive
+     */
+    public long saveAll(Iterator<T> entities, int chunkSize) {
+        checkChunkSize(chunkSize);
+        return executeInTransaction("saveAll", em -> {
+            long count = 0;
+            while (entities.hasNext()) {
+                persistOrMerge(em, entities.next());
+                if (++count % chunkSize == 0) {
+                    em.flush();
+                    em.clear();
+                }
             }
+            return count;
         });
     }
 
+    private static void checkChunkSize(int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size must be positive: " + chunkSize);
+        }
+    }
+
+    private T persistOrMerge(EntityManager em, T entity) {
+        if (entity.getId() == null) {
+            em.persist(entity);
+            return entity;
+        }
+        return em.merge(entity);
+    }
+
     /**
      * Finds an entity by its ID.
      * 
@@ -113,7 +329,7 @@ public abstract class BaseDAO<T extends BaseEntity, ID> {
      * @return An Optional containing the entity if found, or empty if not found
      */
     public Optional<T> findById(ID id) {
-        return executeInTransaction(em -> Optional.ofNullable(em.find(entityClass, id)));
+        return executeReadOnly("findById", em -> Optional.ofNullable(em.find(entityClass, id)));
     }
 
     /**
@@ -123,7 +339,7 @@ public abstract class BaseDAO<T extends BaseEntity, ID> {
      */
     @SuppressWarnings("unchecked")
     public List<T> findAll() {
-        return executeInTransaction(em -> {
+        return executeReadOnly("findAll", em -> {
             String jpql = "SELECT e FROM " + entityClass.getSimpleName() + " e";
             Query query = em.createQuery(jpql);
             return query.getResultList();
@@ -140,30 +356,131 @@ public abstract class BaseDAO<T extends BaseEntity, ID> {
     @SuppressWarnings("unchecked")
     public List<T> findAll(int offset, int limit) {
         try {
-            return executeInTransaction(em -> {
-                String jpql = "SELECT e FROM " + entityClass.getSimpleName() + " e";
+            return executeReadOnly("findAll", em -> {
+                String jpql = "SELECT e FROM " + entityClass.getSimpleName() + " e"
+                        + " ORDER BY e.createdAt ASC, e.id ASC";
                 Query query = em.createQuery(jpql);
                 query.setFirstResult(offset);
                 query.setMaxResults(limit);
                 List<T> result = query.getResultList();
-                System.out.println("Found " + result.size() + " results" + result);
+                LOGGER.log(Level.FINE, "findAll({0}, {1}) found {2} results",
+                        new Object[] { offset, limit, result.size() });
                 return result;
             });
-        } catch (Exception e) {
-            System.err.println("Error in findAll: " + e.getMessage());
-            e.printStackTrace();
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.WARNING, "findAll failed", e);
             throw e;
         }
 
     }
 
+    /**
+     * Retrieves a page of entities using keyset pagination ordered by
+     * (createdAt, id). Unlike {@link #findAll(int, int)} the cost does not grow
+     * with the page depth, and pages stay stable while rows are inserted.
+     * 
+     * @param after The cursor returned with the previous page, or null for the
+     *              first page
+     * @param limit The maximum number of results to return
+     * @return The requested page and the cursor of the next one
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    public KeysetPage<T> findPage(String after, int limit) {
+        Object[] position = after != null ? KeysetPage.decodeCursor(after) : null;
+        return executeReadOnly("findPage", em -> {
+            // Fetch one extra row to find out whether another page exists
+            List<T> result = queryPage(em, position, limit + 1, CacheMode.NORMAL);
+
+            if (result.size() <= limit) {
+                return new KeysetPage<>(result, null);
+            }
+            List<T> items = result.subList(0, limit);
+            return new KeysetPage<>(items, KeysetPage.encodeCursor(items.get(limit - 1)));
+        });
+    }
+
+    /**
+     * Streams every entity, ordered by (createdAt, id), to the given action
+     * without loading the result set into memory. Entities are read in keyset
+     * pages of {@link #DEFAULT_SCROLL_PAGE_SIZE}, each in its own short
+     * read-only transaction that bypasses the second-level cache, so memory
+     * use does not depend on the table size and no connection is held while
+     * the action runs.
+     * 
+     * The stream is not a snapshot: entities created while it runs may be
+     * included, and entities deleted while it runs may be missed.
+     * 
+     * @param action The action to apply to each detached entity
+     * @return The number of entities streamed
+     */
+    public long scrollAll(Consumer<? super T> action) {
+        return scrollAll(action, DEFAULT_SCROLL_PAGE_SIZE);
+    }
+
+    /**
+     * Streams every entity to the given action using the given page size.
+     * 
+     * @param action   The action to apply to each detached entity
+     * @param pageSize The number of entities read per transaction
+     * @return The number of entities streamed
+     * @throws IllegalArgumentException if the page size is not positive
+     */
+    public long scrollAll(Consumer<? super T> action, int pageSize) {
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("Page size must be positive: " + pageSize);
+        }
+        long count = 0;
+        Object[] position = null;
+        while (true) {
+            Object[] after = position;
+            List<T> page = executeReadOnly("scrollAll", em -> queryPage(em, after, pageSize, CacheMode.IGNORE));
+            for (T entity : page) {
+                action.accept(entity);
+            }
+            count += page.size();
+            if (page.size() < pageSize) {
+                return count;
+            }
+            T last = page.get(page.size() - 1);
+            position = new Object[] { last.getCreatedAt(), last.getId() };
+        }
+    }
+
+    /**
+     * Reads the entities following a position in (createdAt, id) order.
+     * 
+     * @param position The createdAt and id of the last entity already read,
+     *                 or null to start at the beginning
+     */
+    @SuppressWarnings("unchecked")
+    private List<T> queryPage(EntityManager em, Object[] position, int limit, CacheMode cacheMode) {
+        StringBuilder jpql = new StringBuilder("SELECT e FROM ")
+                .append(entityClass.getSimpleName()).append(" e");
+        if (position != null) {
+            // The leading bound alone is sargable, so PostgreSQL seeks into the
+            // (created_at, id) index instead of filtering every earlier row
+            jpql.append(" WHERE e.createdAt >= :createdAt")
+                    .append(" AND (e.createdAt > :createdAt OR e.id > :id)");
+        }
+        jpql.append(" ORDER BY e.createdAt ASC, e.id ASC");
+
+        Query query = em.createQuery(jpql.toString());
+        if (position != null) {
+            query.setParameter("createdAt", position[0]);
+            query.setParameter("id", position[1]);
+        }
+        query.setHint(QueryHints.CACHE_MODE, cacheMode);
+        query.setMaxResults(limit);
+        return query.getResultList();
+    }
+
     /**
      * Counts the total number of entities.
      * 
      * @return The total count of entities
      */
     public Long count() {
-        return executeInTransaction(em -> {
+        return executeReadOnly("count", em -> {
             String jpql = "SELECT COUNT(e) FROM " + entityClass.getSimpleName() + " e";
             Query query = em.createQuery(jpql);
             return (Long) query.getSingleResult();
@@ -177,7 +494,7 @@ public abstract class BaseDAO<T extends BaseEntity, ID> {
      * @return true if the entity was found and deleted, false otherwise
      */
     public boolean deleteById(ID id) {
-        return executeInTransaction(em -> {
+        return executeInTransaction("deleteById", em -> {
             T entity = em.find(entityClass, id);
             if (entity != null) {
                 em.remove(entity);
@@ -193,7 +510,7 @@ public abstract class BaseDAO<T extends BaseEntity, ID> {
      * @param entity
      */
     public void delete(T entity) {
-        executeWithoutResult(em -> {
+        executeWithoutResult("delete", em -> {
             T managedEntity = em.merge(entity);
             em.remove(managedEntity);
         });
@@ -206,7 +523,7 @@ public abstract class BaseDAO<T extends BaseEntity, ID> {
      * @return The refreshed entity
      */
     public T refresh(T entity) {
-        return executeInTransaction(em -> {
+        return executeInTransaction("refresh", em -> {
             em.refresh(entity);
             return entity;
         });
@@ -215,13 +532,14 @@ public abstract class BaseDAO<T extends BaseEntity, ID> {
     /**
      * Executes a named query and returns the results.
      * 
+     * @param operation The name of the calling DAO method, used as metrics key
      * @param queryName The name of the query
      * @param params    Parameters for the query in name-value pairs
      * @return The list of results
      */
     @SuppressWarnings("unchecked")
-    protected List<T> executeNamedQuery(String queryName, Object... params) {
-        return executeInTransaction(em -> {
+    protected List<T> executeNamedQuery(String operation, String queryName, Object... params) {
+        return executeReadOnly(operation, em -> {
             Query query = em.createNamedQuery(queryName);
             for (int i = 0; i < params.length; i += 2) {
                 query.setParameter(params[i].toString(), params[i + 1]);
@@ -233,13 +551,67 @@ public abstract class BaseDAO<T extends BaseEntity, ID> {
     /**
      * Executes a JPQL query and returns the results.
      * 
-     * @param jpql   The JPQL query string
-     * @param params Parameters for the query in name-value pairs
+     * @param operation The name of the calling DAO method, used as metrics key
+     * @param jpql      The JPQL query string
+     * @param params    Parameters for the query in name-value pairs
      * @return The list of results
      */
     @SuppressWarnings("unchecked")
-    protected List<T> executeQuery(String jpql, Object... params) {
-        return executeInTransaction(em -> {
+    protected List<T> executeQuery(String operation, String jpql, Object... params) {
+        return executeReadOnly(operation, em -> {
+            Query query = em.createQuery(jpql);
+            for (int i = 0; i < params.length; i += 2) {
+                query.setParameter(params[i].toString(), params[i + 1]);
+            }
+            return query.getResultList();
+        });
+    }
+
+    /**
+     * Returns the second-level cache statistics (hits, misses, puts and
+     * element counts) of the region holding this DAO's entity type.
+     * 
+     * @return The region statistics, or null if the entity is not cacheable
+     */
+    public CacheRegionStatistics getCacheStatistics() {
+        SessionFactoryImplementor sessionFactory = (SessionFactoryImplementor) emf;
+        EntityDataAccess cacheAccess = sessionFactory.getMetamodel()
+                .entityPersister(entityClass)
+                .getCacheAccessStrategy();
+        if (cacheAccess == null) {
+            return null;
+        }
+        return sessionFactory.getStatistics()
+                .getDomainDataRegionStatistics(cacheAccess.getRegion().getName());
+    }
+
+    /**
+     * Returns a snapshot of every connection pool's saturation: active, idle
+     * and waiting connections plus connection acquisition times.
+     * 
+     * @return The pool metrics keyed by "primary" or replica name
+     */
+    public static Map<String, PoolMetrics> getPoolMetrics() {
+        ConnectionProvider provider = ((SessionFactoryImplementor) emf).getServiceRegistry()
+                .getService(ConnectionProvider.class);
+        if (provider instanceof RoutingConnectionProvider) {
+            return ((RoutingConnectionProvider) provider).getMetrics();
+        }
+        return Collections.emptyMap();
+    }
+
+    /**
+     * Executes a JPQL projection query, such as a constructor expression, and
+     * returns the results.
+     * 
+     * @param operation The name of the calling DAO method, used as metrics key
+     * @param jpql      The JPQL query string
+     * @param params    Parameters for the query in name-value pairs
+     * @return The list of projected results
+     */
+    @SuppressWarnings("unchecked")
+    protected <R> List<R> executeProjection(String operation, String jpql, Object... params) {
+        return executeReadOnly(operation, em -> {
             Query query = em.createQuery(jpql);
             for (int i = 0; i < params.length; i += 2) {
                 query.setParameter(params[i].toString(), params[i + 1]);
@@ -248,11 +620,21 @@ public abstract class BaseDAO<T extends BaseEntity, ID> {
         });
     }
 
+    /**
+     * Returns the Hibernate statistics of the shared session factory: query,
+     * entity, collection, cache and connection counters.
+     * 
+     * @return The session factory statistics
+     */
+    public static Statistics getStatistics() {
+        return ((SessionFactoryImplementor) emf).getStatistics();
+    }
+
     public void clear() {
-        executeWithoutResult(EntityManager::clear);
+        executeWithoutResult("clear", EntityManager::clear);
     }
 
     public void flush() {
-        executeWithoutResult(EntityManager::flush);
+        executeWithoutResult("flush", EntityManager::flush);
     }
 }
\ No newline at end of file
@@ -2,27 +2,40 @@ package com.eventmgmt.dao;
 
 import com.eventmgmt.model.Event;
 import com.eventmgmt.model.EventType;
+import com.eventmgmt.model.dto.EventSummary;
 import javax.persistence.EntityManager;
 import javax.persistence.Query;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.UUID;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 /**
  * Data Access Object (DAO) for managing Event entities.
  */
-public class EventDAO extends BaseDAO<Event, String> {
+public class EventDAO extends BaseDAO<Event, UUID> {
+
+    private static final Logger LOGGER = Logger.getLogger(EventDAO.class.getName());
+
+    /** Selects only the columns needed for list pages into {@link EventSummary}. */
+    private static final String SUMMARY_SELECT = "SELECT new com.eventmgmt.model.dto.EventSummary("
+            + "e.id, e.name, e.eventDate, e.location, e.type, e.imgUrl) FROM Event e";
 
     /**
-     * Finds events by their location.
+     * Finds events by their location, most similar locations first.
+     * The substring match is served by a trigram index on the location.
      * 
      * @param location The location to search for (partial match)
      * @return A list of events at the specified location
      */
     public List<Event> findByLocation(String location) {
-        return executeQuery(
-                "SELECT e FROM Event e WHERE LOWER(e.location) LIKE LOWER(:location)",
-                "location", "%" + location + "%");
+        return executeQuery("findByLocation",
+                "SELECT e FROM Event e WHERE LOWER(e.location) LIKE LOWER(:location)"
+                        + " ORDER BY trgm_similarity(e.location, :term) DESC",
+                "location", "%" + location + "%",
+                "term", location);
     }
 
     /**
@@ -32,7 +45,7 @@ public class EventDAO extends BaseDAO<Event, String> {
      * @return A list of events of the specified type
      */
     public List<Event> findByType(EventType type) {
-        return executeQuery(
+        return executeQuery("findByType",
                 "SELECT e FROM Event e WHERE e.type = :type",
                 "type", type);
     }
@@ -45,7 +58,7 @@ public class EventDAO extends BaseDAO<Event, String> {
      * @return A list of events within the specified date range
      */
     public List<Event> findByDateRange(LocalDateTime startDate, LocalDateTime endDate) {
-        return executeQuery(
+        return executeQuery("findByDateRange",
                 "SELECT e FROM Event e WHERE e.eventDate BETWEEN :startDate AND :endDate",
                 "startDate", startDate,
                 "endDate", endDate);
@@ -57,8 +70,8 @@ public class EventDAO extends BaseDAO<Event, String> {
      * @param creatorId The ID of the creator user
      * @return A list of events created by the specified user
      */
-    public List<Event> findByCreator(String creatorId) {
-        return executeQuery(
+    public List<Event> findByCreator(UUID creatorId) {
+        return executeQuery("findByCreator",
                 "SELECT e FROM Event e WHERE e.creator.id = :creatorId",
                 "creatorId", creatorId);
     }
@@ -71,7 +84,7 @@ public class EventDAO extends BaseDAO<Event, String> {
      */
     @SuppressWarnings("unchecked")
     public List<Event> findUpcomingEvents(int limit) {
-        return executeInTransaction(em -> {
+        return executeReadOnly("findUpcomingEvents", em -> {
             Query query = em.createQuery(
                     "SELECT e FROM Event e WHERE e.eventDate > CURRENT_TIMESTAMP ORDER BY e.eventDate ASC");
             query.setMaxResults(limit);
@@ -85,15 +98,100 @@ public class EventDAO extends BaseDAO<Event, String> {
      * @return A list of events with remaining capacity
      */
     public List<Event> findEventsWithAvailableCapacity() {
-        return executeQuery(
+        return executeQuery("findEventsWithAvailableCapacity",
                 "SELECT e FROM Event e WHERE e.capacity > 0");
     }
 
+    /**
+     * Finds summaries of upcoming events from the current time.
+     * 
+     * @param limit The maximum number of events to return
+     * @return A list of upcoming event summaries
+     */
+    @SuppressWarnings("unchecked")
+    public List<EventSummary> findUpcomingSummaries(int limit) {
+        return executeReadOnly("findUpcomingSummaries", em -> {
+            Query query = em.createQuery(SUMMARY_SELECT
+                    + " WHERE e.eventDate > CURRENT_TIMESTAMP ORDER BY e.eventDate ASC");
+            query.setMaxResults(limit);
+            return query.getResultList();
+        });
+    }
+
+    /**
+     * Finds summaries of all upcoming events from the current time.
+     * 
+     * @return A list of upcoming event summaries ordered by event date
+     */
+    public List<EventSummary> findAllUpcomingSummaries() {
+        return executeProjection("findAllUpcomingSummaries",
+                SUMMARY_SELECT + " WHERE e.eventDate > CURRENT_TIMESTAMP ORDER BY e.eventDate ASC");
+    }
+
+    /**
+     * Finds the latest update time and the number of events. Together they
+     * change whenever an event is created, updated or deleted, so they
+     * fingerprint the whole table for HTTP validation.
+     * 
+     * @return The latest updatedAt (null if there are no events) and the count
+     */
+    public Object[] findLastUpdateAndCount() {
+        return executeReadOnly("findLastUpdateAndCount", em -> (Object[]) em
+                .createQuery("SELECT MAX(e.updatedAt), COUNT(e) FROM Event e")
+                .getSingleResult());
+    }
+
+    /**
+     * Counts upcoming events per location.
+     * 
+     * @param limit The maximum number of locations to return
+     * @return Pairs of location and event count, most events first
+     */
+    @SuppressWarnings("unchecked")
+    public List<Object[]> countUpcomingByLocation(int limit) {
+        return executeReadOnly("countUpcomingByLocation", em -> {
+            Query query = em.createQuery("SELECT e.location, COUNT(e) FROM Event e"
+                    + " WHERE e.eventDate > CURRENT_TIMESTAMP"
+                    + " GROUP BY e.location ORDER BY COUNT(e) DESC, e.location ASC");
+            query.setMaxResults(limit);
+            return query.getResultList();
+        });
+    }
+
+    /**
+     * Counts upcoming events per event type.
+     * 
+     * @return Pairs of event type and event count, most events first
+     */
+    public List<Object[]> countUpcomingByType() {
+        return executeProjection("countUpcomingByType", "SELECT e.type, COUNT(e) FROM Event e"
+                + " WHERE e.eventDate > CURRENT_TIMESTAMP"
+                + " GROUP BY e.type ORDER BY COUNT(e) DESC, e.type ASC");
+    }
+
+    /**
+     * Finds summaries of events by date range.
+     * 
+     * @param startDate The start date of the range
+     * @param endDate   The end date of the range
+     * @return A list of event summaries within the specified date range
+     */
+    public List<EventSummary> findSummariesByDateRange(LocalDateTime startDate, LocalDateTime endDate) {
+        return executeProjection("findSummariesByDateRange",
+                SUMMARY_SELECT + " WHERE e.eventDate BETWEEN :startDate AND :endDate",
+                "startDate", startDate,
+                "endDate", endDate);
+    }
+
     /**
      * Search for events based on multiple criteria.
      * Uses JPQL with dynamic conditions for flexibility.
+     * The name is matched by full-text search over the event name and
+     * description, and results are ranked by relevance. Every word must
+     * match the start of a word in the event, without stemming, so
+     * "conf festiva" finds "Conference Festival".
      * 
-     * @param name      Event name (partial match)
+     * @param name      Words to search for; the last word may be a prefix
      * @param location  Event location (partial match)
      * @param type      Event type
      * @param startDate Minimum event date
@@ -104,61 +202,116 @@ public class EventDAO extends BaseDAO<Event, String> {
     public List<Event> searchEvents(String name, String location, EventType type,
             LocalDateTime startDate, LocalDateTime endDate) {
         try {
-            return executeInTransaction(em -> {
-                StringBuilder jpql = new StringBuilder("SELECT e FROM Event e WHERE 1=1");
+            return executeReadOnly("searchEvents", em -> createSearchQuery(em, "SELECT e FROM Event e",
+                    name, location, type, startDate, endDate).getResultList());
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.WARNING, "searchEvents failed", e);
+            throw e;
+        }
+    }
 
-                if (name != null && !name.isEmpty()) {
-                    jpql.append(" AND LOWER(e.name) LIKE LOWER(:name)");
-                }
+    /**
+     * Search for event summaries based on multiple criteria.
+     * Takes the same criteria as
+     * {@link #searchEvents(String, String, EventType, LocalDateTime, LocalDateTime)}.
+     * 
+     * @return A list of event summaries matching the specified criteria
+     */
+    @SuppressWarnings("unchecked")
+    public List<EventSummary> searchEventSummaries(String name, String location, EventType type,
+            LocalDateTime startDate, LocalDateTime endDate) {
+        return executeReadOnly("searchEventSummaries", em -> createSearchQuery(em, SUMMARY_SELECT,
+                name, location, type, startDate, endDate).getResultList());
+    }
 
-                if (location != null && !location.isEmpty()) {
-                    jpql.append(" AND LOWER(e.location) LIKE LOWER(:location)");
-                }
+    /**
+     * Builds the search query for the given select clause, adding a condition
+     * for every criterion that is set. Full-text matches are ordered by rank
+     * and location matches by similarity before falling back to the date.
+     */
+    private Query createSearchQuery(EntityManager em, String select, String name, String location,
+            EventType type, LocalDateTime startDate, LocalDateTime endDate) {
+        StringBuilder jpql = new StringBuilder(select).append(" WHERE 1=1");
+        String textQuery = name != null ? toPrefixTextQuery(name) : null;
+        boolean hasLocation = location != null && !location.isEmpty();
 
-                if (type != null) {
-                    jpql.append(" AND e.type = :type");
-                }
+        if (textQuery != null) {
+            jpql.append(" AND fts_match(e.name, e.description, :name) = true");
+        }
 
-                if (startDate != null) {
-                    jpql.append(" AND e.eventDate >= :startDate");
-                }
+        if (hasLocation) {
+            jpql.append(" AND LOWER(e.location) LIKE LOWER(:location)");
+        }
 
-                if (endDate != null) {
-                    jpql.append(" AND e.eventDate <= :endDate");
-                }
+        if (type != null) {
+            jpql.append(" AND e.type = :type");
+        }
 
-                jpql.append(" ORDER BY e.eventDate ASC");
+        if (startDate != null) {
+            jpql.append(" AND e.eventDate >= :startDate");
+        }
 
-                Query query = em.createQuery(jpql.toString());
+        if (endDate != null) {
+            jpql.append(" AND e.eventDate <= :endDate");
+        }
 
-                if (name != null && !name.isEmpty()) {
-                    query.setParameter("name", "%" + name.toLowerCase() + "%");
-                }
+        jpql.append(" ORDER BY ");
+        if (textQuery != null) {
+            jpql.append("fts_rank(e.name, e.description, :name) DESC, ");
+        } else if (hasLocation) {
+            jpql.append("trgm_similarity(e.location, :locationTerm) DESC, ");
+        }
+        jpql.append("e.eventDate ASC");
 
-                if (location != null && !location.isEmpty()) {
-                    query.setParameter("location", "%" + location.toLowerCase() + "%");
-                }
+        Query query = em.createQuery(jpql.toString());
 
-                if (type != null) {
-                    query.setParameter("type", type);
-                }
+        if (textQuery != null) {
+            query.setParameter("name", textQuery);
+        }
 
-                if (startDate != null) {
-                    query.setParameter("startDate", startDate);
-                }
+        if (hasLocation) {
+            query.setParameter("location", "%" + location.toLowerCase() + "%");
+            if (textQuery == null) {
+                query.setParameter("locationTerm", location);
+            }
+        }
 
-                if (endDate != null) {
-                    query.setParameter("endDate", endDate);
-                }
+        if (type != null) {
+            query.setParameter("type", type);
+        }
 
-                return query.getResultList();
-            });
+        if (startDate != null) {
+            query.setParameter("startDate", startDate);
+        }
 
-        } catch (Exception e) {
-            System.err.println("Error in findAll: " + e.getMessage());
-            e.printStackTrace();
-            throw e;
+        if (endDate != null) {
+            query.setParameter("endDate", endDate);
         }
 
+        return query;
+    }
+
+    /**
+     * Turns free text into a tsquery that matches every word, treating each
+     * word as a prefix so that partial input keeps matching while typing.
+     * Only letters and digits are kept, so user input cannot inject tsquery
+     * operators. The query is parsed with the 'simple' configuration, so
+     * words are neither stemmed nor dropped as stopwords.
+     * 
+     * @param text The text to search for
+     * @return The tsquery, or null if the text contains no words
+     */
+    static String toPrefixTextQuery(String text) {
+        StringBuilder tsquery = new StringBuilder();
+        for (String word : text.split("[^\\p{L}\\p{N}]+")) {
+            if (word.isEmpty()) {
+                continue;
+            }
+            if (tsquery.length() > 0) {
+                tsquery.append(" & ");
+            }
+            tsquery.append(word.toLowerCase()).append(":*");
+        }
+        return tsquery.length() > 0 ? tsquery.toString() : null;
     }
-}
\ No newline at end of file
+}
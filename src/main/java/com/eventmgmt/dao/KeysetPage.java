@@ -0,0 +1,69 @@
+package com.eventmgmt.dao;
+
+import com.eventmgmt.model.BaseEntity;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * A page of entities returned by keyset (seek) pagination, ordered by
+ * (createdAt, id), together with an opaque cursor pointing at the next page.
+ *
+ * @param <T> The entity type
+ */
+public class KeysetPage<T extends BaseEntity> {
+
+    private static final String SEPARATOR = "|";
+
+    private final List<T> items;
+    private final String nextCursor;
+
+    public KeysetPage(List<T> items, String nextCursor) {
+        this.items = Collections.unmodifiableList(items);
+        this.nextCursor = nextCursor;
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    /**
+     * Returns the cursor to pass as {@code after} for the next page, or null if
+     * this is the last page.
+     */
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    /**
+     * Encodes the position of an entity into an opaque, URL-safe cursor.
+     */
+    static String encodeCursor(BaseEntity entity) {
+        String raw = entity.getCreatedAt() + SEPARATOR + entity.getId();
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a cursor produced by {@link #encodeCursor(BaseEntity)}.
+     *
+     * @return A two element array of the createdAt timestamp and the id
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    static Object[] decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int split = raw.indexOf(SEPARATOR);
+            if (split < 0) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new Object[] { LocalDateTime.parse(raw.substring(0, split)), UUID.fromString(raw.substring(split + 1)) };
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+}
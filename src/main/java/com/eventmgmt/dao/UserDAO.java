@@ -2,19 +2,19 @@ package com.eventmgmt.dao;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 
 import javax.persistence.NoResultException;
 import javax.persistence.Query;
 
 import com.eventmgmt.model.User;
 import com.eventmgmt.model.UserRole;
-import com.eventmgmt.util.PasswordUtil;
 
 /**
  * Data Access Object for User entities.
  * Extends the BaseDAO to handle persistence operations for User entities.
  */
-public class UserDAO extends BaseDAO<User, String> {
+public class UserDAO extends BaseDAO<User, UUID> {
     
     /**
      * Finds a user by email.
@@ -23,7 +23,7 @@ public class UserDAO extends BaseDAO<User, String> {
      * @return An Optional containing the user if found
      */
     public Optional<User> findByEmail(String email) {
-        return executeInTransaction(em -> {
+        return executeReadOnly("findByEmail", em -> {
             try {
                 String jpql = "SELECT u FROM User u WHERE u.email = :email";
                 Query query = em.createQuery(jpql);
@@ -35,6 +35,38 @@ public class UserDAO extends BaseDAO<User, String> {
         });
     }
     
+    /**
+     * Loads a user from the primary database. Unlike {@link #findById(Object)}
+     * this bypasses the second-level cache and replicas, which may not have
+     * seen changes made through other instances yet.
+     * 
+     * @param id The ID of the user
+     * @return An Optional containing the user if found
+     */
+    public Optional<User> findCurrentById(UUID id) {
+        // A query, unlike find(), reads the row rather than the cached entity
+        return executeReadOnlyOnPrimary("findCurrentById", em -> em
+                .createQuery("SELECT u FROM User u WHERE u.id = :id", User.class)
+                .setParameter("id", id)
+                .getResultStream()
+                .findFirst());
+    }
+
+    /**
+     * Revokes every token issued to a user up to now.
+     * 
+     * @param id The ID of the user
+     * @param revokedAt The current time in epoch milliseconds
+     * @return true if the user was found
+     */
+    public boolean revokeTokens(UUID id, long revokedAt) {
+        return executeInTransaction("revokeTokens", em -> em.createQuery(
+                "UPDATE User u SET u.tokensRevokedAt = :revokedAt WHERE u.id = :id")
+                .setParameter("revokedAt", revokedAt)
+                .setParameter("id", id)
+                .executeUpdate() > 0);
+    }
+
     /**
      * Finds users by role.
      * 
@@ -43,31 +75,20 @@ public class UserDAO extends BaseDAO<User, String> {
      */
     public List<User> findByRole(UserRole role) {
         String jpql = "SELECT u FROM User u WHERE u.role = :role";
-        return executeQuery(jpql, "role", role);
+        return executeQuery("findByRole", jpql, "role", role);
     }
     
     /**
-     * Searches for users by partial email match.
+     * Searches for users by partial email match, most similar emails first.
+     * The substring match is served by a trigram index on the email.
      * 
      * @param emailPattern The email pattern to search for
      * @return A list of users with matching email patterns
      */
     public List<User> searchByEmail(String emailPattern) {
-        String jpql = "SELECT u FROM User u WHERE LOWER(u.email) LIKE LOWER(:pattern)";
-        return executeQuery(jpql, "pattern", "%" + emailPattern + "%");
-    }
-    
-    /**
-     * Verifies user credentials for login.
-     * 
-     * @param email The user's email
-     * @param plainPassword The plain text password to verify
-     * @return An Optional containing the user if credentials are valid
-     */
-    public Optional<User> verifyCredentials(String email, String plainPassword) {
-        return findByEmail(email).filter(user -> 
-            PasswordUtil.verifyPassword(plainPassword, user.getPassword())
-        );
+        String jpql = "SELECT u FROM User u WHERE LOWER(u.email) LIKE LOWER(:pattern)"
+                + " ORDER BY trgm_similarity(u.email, :term) DESC";
+        return executeQuery("searchByEmail", jpql, "pattern", "%" + emailPattern + "%", "term", emailPattern);
     }
     
     /**
@@ -0,0 +1,36 @@
+package com.eventmgmt.dao.dialect;
+
+import org.hibernate.dialect.PostgreSQL10Dialect;
+import org.hibernate.dialect.function.SQLFunctionTemplate;
+import org.hibernate.type.StandardBasicTypes;
+
+/**
+ * PostgreSQL dialect exposing full-text and trigram search to JPQL.
+ * 
+ * The rendered expressions must stay identical to the index definitions in
+ * db/migration (V2__query_indexes.sql, V5__simple_search_index.sql),
+ * otherwise PostgreSQL cannot use the indexes:
+ * - fts_match(name, description, query) - full-text match of a prefix tsquery
+ * - fts_rank(name, description, query) - relevance of a full-text match
+ * - trgm_similarity(column, term) - trigram similarity of a lowercased column
+ */
+public class SearchPostgreSQLDialect extends PostgreSQL10Dialect {
+
+    /**
+     * Text search document of an event, matching the events_search_simple_idx
+     * index. The 'simple' configuration neither stems nor drops stopwords, so
+     * prefix terms match the words as written.
+     */
+    private static final String EVENT_DOCUMENT =
+            "to_tsvector('simple', coalesce(?1, '') || ' ' || coalesce(?2, ''))";
+
+    public SearchPostgreSQLDialect() {
+        super();
+        registerFunction("fts_match", new SQLFunctionTemplate(StandardBasicTypes.BOOLEAN,
+                "(" + EVENT_DOCUMENT + " @@ to_tsquery('simple', ?3))"));
+        registerFunction("fts_rank", new SQLFunctionTemplate(StandardBasicTypes.FLOAT,
+                "ts_rank(" + EVENT_DOCUMENT + ", to_tsquery('simple', ?3))"));
+        registerFunction("trgm_similarity", new SQLFunctionTemplate(StandardBasicTypes.FLOAT,
+                "similarity(lower(?1), lower(?2))"));
+    }
+}
@@ -0,0 +1,146 @@
+package com.eventmgmt.dao.pool;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Thread-bound routing hints consulted by {@link RoutingConnectionProvider}
+ * when a connection is acquired.
+ * 
+ * The DAO layer marks read-only units of work, which may be served by a
+ * replica, and records writes. After a write, reads from the same thread or
+ * from the same client (as bound by the web layer) stay on the primary for the
+ * read-your-writes window so they never observe replication lag.
+ */
+public final class DataSourceRouting {
+
+    /** Expired client entries are purged once the map grows past this size. */
+    private static final int MAX_TRACKED_CLIENTS = 10_000;
+
+    private static final ThreadLocal<Context> CONTEXT = ThreadLocal.withInitial(Context::new);
+    private static final Map<String, Long> clientWriteDeadlines = new ConcurrentHashMap<>();
+
+    private static volatile long stickinessNanos = TimeUnit.SECONDS.toNanos(2);
+
+    private DataSourceRouting() {
+    }
+
+    private static final class Context {
+        private boolean readOnly;
+        private boolean primaryOnly;
+        private String clientKey;
+        private long lastWriteNanos;
+        private boolean wrote;
+    }
+
+    /**
+     * Sets how long reads stay on the primary after a write.
+     * 
+     * @param millis The read-your-writes window in milliseconds
+     */
+    static void setStickinessWindow(long millis) {
+        stickinessNanos = TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+
+    /**
+     * Binds the client (e.g. an HTTP session) on whose behalf the current
+     * thread works, so that stickiness carries over to its next requests.
+     * 
+     * @param clientKey A stable key for the client, or null if unknown
+     */
+    public static void bindClient(String clientKey) {
+        Context context = CONTEXT.get();
+        context.clientKey = clientKey;
+        context.wrote = false;
+    }
+
+    /**
+     * Returns the client bound to the current thread, so that it can be bound
+     * again on a thread that continues the same request.
+     * 
+     * @return The client key, or null if none is bound
+     */
+    public static String getClient() {
+        return CONTEXT.get().clientKey;
+    }
+
+    /**
+     * Clears the client bound by {@link #bindClient(String)}.
+     */
+    public static void unbindClient() {
+        CONTEXT.remove();
+    }
+
+    /**
+     * Marks the start or end of a read-only unit of work on this thread.
+     * 
+     * @param readOnly true while a read-only unit of work is running
+     */
+    public static void setReadOnly(boolean readOnly) {
+        CONTEXT.get().readOnly = readOnly;
+    }
+
+    /**
+     * Marks the start or end of work that must see the primary although it
+     * only reads, e.g. because other instances may have just written what it
+     * reads. Unlike a write, it does not extend the read-your-writes window.
+     * 
+     * @param primaryOnly true while such work is running
+     */
+    public static void setPrimaryOnly(boolean primaryOnly) {
+        CONTEXT.get().primaryOnly = primaryOnly;
+    }
+
+    /**
+     * Records that the current thread committed a write.
+     */
+    public static void recordWrite() {
+        Context context = CONTEXT.get();
+        long now = System.nanoTime();
+        context.lastWriteNanos = now;
+        context.wrote = true;
+        if (context.clientKey != null) {
+            if (clientWriteDeadlines.size() > MAX_TRACKED_CLIENTS) {
+                clientWriteDeadlines.values().removeIf(deadline -> deadline - now < 0);
+            }
+            clientWriteDeadlines.put(context.clientKey, now + stickinessNanos);
+        }
+    }
+
+    /**
+     * Decides whether the connection being acquired may come from a replica.
+     * 
+     * @return true for read-only work outside the read-your-writes window
+     */
+    static boolean isReplicaAllowed() {
+        Context context = CONTEXT.get();
+        return context.readOnly && !context.primaryOnly && !isPrimaryRequired();
+    }
+
+    /**
+     * Checks whether the current thread or its bound client is within the
+     * read-your-writes window of a write, so that reads must see the primary.
+     * Callers that share read results between clients use this to keep such
+     * reads to themselves.
+     * 
+     * @return true if reads on behalf of the current client must go to the primary
+     */
+    public static boolean isPrimaryRequired() {
+        Context context = CONTEXT.get();
+        long now = System.nanoTime();
+        if (context.wrote && now - context.lastWriteNanos < stickinessNanos) {
+            return true;
+        }
+        if (context.clientKey != null) {
+            Long deadline = clientWriteDeadlines.get(context.clientKey);
+            if (deadline != null) {
+                if (deadline - now > 0) {
+                    return true;
+                }
+                clientWriteDeadlines.remove(context.clientKey, deadline);
+            }
+        }
+        return false;
+    }
+}
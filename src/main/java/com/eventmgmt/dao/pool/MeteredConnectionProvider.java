@@ -0,0 +1,97 @@
+package com.eventmgmt.dao.pool;
+
+import com.eventmgmt.metrics.LatencyHistogram;
+import com.mchange.v2.c3p0.PooledDataSource;
+import org.hibernate.c3p0.internal.C3P0ConnectionProvider;
+import org.hibernate.internal.util.config.ConfigurationHelper;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import javax.sql.DataSource;
+
+/**
+ * c3p0 connection provider that records how long callers wait for a
+ * connection and exposes the saturation of the pool.
+ * 
+ * Pool sizing, checkout timeout, idle eviction and leak detection are
+ * configured through the hibernate.c3p0.* properties in persistence.xml.
+ */
+public class MeteredConnectionProvider extends C3P0ConnectionProvider {
+
+    /** c3p0's default maximum pool size. */
+    private static final int DEFAULT_MAX_SIZE = 15;
+
+    private final LatencyHistogram acquireTimes = new LatencyHistogram();
+    private final LongAdder acquireFailures = new LongAdder();
+    private final AtomicInteger leased = new AtomicInteger();
+    private int maxSize = DEFAULT_MAX_SIZE;
+
+    @Override
+    @SuppressWarnings("rawtypes")
+    public void configure(Map props) {
+        super.configure(props);
+        maxSize = ConfigurationHelper.getInt("hibernate.c3p0.max_size", props, DEFAULT_MAX_SIZE);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        long start = System.nanoTime();
+        try {
+            Connection connection = super.getConnection();
+            leased.incrementAndGet();
+            return connection;
+        } catch (SQLException e) {
+            acquireFailures.increment();
+            throw e;
+        } finally {
+            acquireTimes.record(System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public void closeConnection(Connection connection) throws SQLException {
+        leased.decrementAndGet();
+        super.closeConnection(connection);
+    }
+
+    /**
+     * Returns the number of connections currently handed out through this
+     * provider. Unlike {@link #getMetrics()} this is a single volatile read.
+     * 
+     * @return The number of leased connections
+     */
+    public int getLeasedConnections() {
+        return leased.get();
+    }
+
+    /**
+     * Takes a snapshot of the current pool state.
+     * 
+     * @return The pool metrics
+     */
+    public PoolMetrics getMetrics() {
+        int total = 0;
+        int active = 0;
+        int idle = 0;
+        int pending = 0;
+        DataSource dataSource = unwrap(DataSource.class);
+        if (dataSource instanceof PooledDataSource) {
+            PooledDataSource pool = (PooledDataSource) dataSource;
+            try {
+                total = pool.getNumConnectionsDefaultUser();
+                active = pool.getNumBusyConnectionsDefaultUser();
+                idle = pool.getNumIdleConnectionsDefaultUser();
+                pending = pool.getNumThreadsAwaitingCheckoutDefaultUser();
+            } catch (SQLException e) {
+                // The pool is closed; report it as empty
+            }
+        }
+        return new PoolMetrics(maxSize, total, active, idle, pending,
+                acquireTimes.getCount(), acquireFailures.sum(),
+                acquireTimes.percentile(0.50), acquireTimes.percentile(0.95),
+                acquireTimes.percentile(0.99), acquireTimes.getMax());
+    }
+}
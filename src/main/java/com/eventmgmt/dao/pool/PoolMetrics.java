@@ -0,0 +1,107 @@
+package com.eventmgmt.dao.pool;
+
+/**
+ * Point-in-time snapshot of connection pool saturation.
+ */
+public class PoolMetrics {
+
+    private final int maxSize;
+    private final int total;
+    private final int active;
+    private final int idle;
+    private final int pending;
+    private final long acquireCount;
+    private final long acquireFailures;
+    private final long acquireP50Nanos;
+    private final long acquireP95Nanos;
+    private final long acquireP99Nanos;
+    private final long acquireMaxNanos;
+
+    public PoolMetrics(int maxSize, int total, int active, int idle, int pending,
+            long acquireCount, long acquireFailures,
+            long acquireP50Nanos, long acquireP95Nanos, long acquireP99Nanos, long acquireMaxNanos) {
+        this.maxSize = maxSize;
+        this.total = total;
+        this.active = active;
+        this.idle = idle;
+        this.pending = pending;
+        this.acquireCount = acquireCount;
+        this.acquireFailures = acquireFailures;
+        this.acquireP50Nanos = acquireP50Nanos;
+        this.acquireP95Nanos = acquireP95Nanos;
+        this.acquireP99Nanos = acquireP99Nanos;
+        this.acquireMaxNanos = acquireMaxNanos;
+    }
+
+    /**
+     * @return The configured maximum number of connections
+     */
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * @return The number of open connections, active or idle
+     */
+    public int getTotal() {
+        return total;
+    }
+
+    /**
+     * @return The number of connections checked out by the application
+     */
+    public int getActive() {
+        return active;
+    }
+
+    /**
+     * @return The number of connections waiting in the pool
+     */
+    public int getIdle() {
+        return idle;
+    }
+
+    /**
+     * @return The number of threads waiting for a connection
+     */
+    public int getPending() {
+        return pending;
+    }
+
+    /**
+     * @return The number of connections handed out since startup
+     */
+    public long getAcquireCount() {
+        return acquireCount;
+    }
+
+    /**
+     * @return The number of checkouts that failed or timed out
+     */
+    public long getAcquireFailures() {
+        return acquireFailures;
+    }
+
+    public long getAcquireP50Nanos() {
+        return acquireP50Nanos;
+    }
+
+    public long getAcquireP95Nanos() {
+        return acquireP95Nanos;
+    }
+
+    public long getAcquireP99Nanos() {
+        return acquireP99Nanos;
+    }
+
+    public long getAcquireMaxNanos() {
+        return acquireMaxNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "PoolMetrics{active=" + active + ", idle=" + idle + ", pending=" + pending
+                + ", total=" + total + "/" + maxSize
+                + ", acquireP99=" + acquireP99Nanos / 1000 + "us}";
+    }
+}
@@ -0,0 +1,224 @@
+package com.eventmgmt.dao.pool;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.engine.jdbc.connections.spi.ConnectionProvider;
+import org.hibernate.internal.util.config.ConfigurationHelper;
+import org.hibernate.service.UnknownUnwrapTypeException;
+import org.hibernate.service.spi.Configurable;
+import org.hibernate.service.spi.ServiceRegistryAwareService;
+import org.hibernate.service.spi.ServiceRegistryImplementor;
+import org.hibernate.service.spi.Stoppable;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Connection provider that sends writes to the primary database and read-only
+ * work to replicas.
+ * 
+ * Each database gets its own {@link MeteredConnectionProvider} pool configured
+ * from the same hibernate.c3p0.* settings. Replicas are picked round-robin or
+ * by the fewest leased connections. A replica that fails to hand out a
+ * connection is skipped for a retry interval, and reads fall back to the
+ * primary when no replica is available. See {@link DataSourceRouting} for how
+ * work is classified.
+ * 
+ * Configuration (persistence.xml):
+ * - eventmgmt.datasource.replicas - comma separated replica JDBC URLs
+ * - eventmgmt.datasource.replica_selection - round-robin or least-loaded
+ * - eventmgmt.datasource.read_your_writes_ms - primary stickiness after a write
+ * - eventmgmt.datasource.replica_retry_ms - how long a failed replica is skipped
+ */
+public class RoutingConnectionProvider
+        implements ConnectionProvider, Configurable, Stoppable, ServiceRegistryAwareService {
+
+    public static final String REPLICAS = "eventmgmt.datasource.replicas";
+    public static final String REPLICA_SELECTION = "eventmgmt.datasource.replica_selection";
+    public static final String READ_YOUR_WRITES_MS = "eventmgmt.datasource.read_your_writes_ms";
+    public static final String REPLICA_RETRY_MS = "eventmgmt.datasource.replica_retry_ms";
+
+    private static final Logger LOGGER = Logger.getLogger(RoutingConnectionProvider.class.getName());
+
+    private final MeteredConnectionProvider primary = new MeteredConnectionProvider();
+    private final List<Replica> replicas = new ArrayList<>();
+    private final Map<Connection, MeteredConnectionProvider> leases = new ConcurrentHashMap<>();
+    private final AtomicInteger nextReplica = new AtomicInteger();
+
+    private ServiceRegistryImplementor serviceRegistry;
+    private boolean leastLoaded;
+    private long retryNanos;
+
+    private static final class Replica {
+        private final String name;
+        private final MeteredConnectionProvider pool;
+        private volatile long downUntilNanos;
+        private volatile boolean down;
+
+        private Replica(String name, MeteredConnectionProvider pool) {
+            this.name = name;
+            this.pool = pool;
+        }
+
+        private boolean isAvailable(long now) {
+            return !down || now - downUntilNanos >= 0;
+        }
+    }
+
+    @Override
+    public void injectServices(ServiceRegistryImplementor serviceRegistry) {
+        this.serviceRegistry = serviceRegistry;
+    }
+
+    @Override
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    public void configure(Map props) {
+        primary.injectServices(serviceRegistry);
+        primary.configure(props);
+
+        String urls = ConfigurationHelper.getString(REPLICAS, props, "");
+        for (String url : urls.split(",")) {
+            if (url.trim().isEmpty()) {
+                continue;
+            }
+            Map replicaProps = new HashMap(props);
+            replicaProps.put(AvailableSettings.URL, url.trim());
+            replicaProps.put(AvailableSettings.JPA_JDBC_URL, url.trim());
+
+            MeteredConnectionProvider pool = new MeteredConnectionProvider();
+            pool.injectServices(serviceRegistry);
+            pool.configure(replicaProps);
+            replicas.add(new Replica("replica-" + (replicas.size() + 1), pool));
+        }
+
+        leastLoaded = "least-loaded".equalsIgnoreCase(
+                ConfigurationHelper.getString(REPLICA_SELECTION, props, "round-robin"));
+        retryNanos = TimeUnit.MILLISECONDS.toNanos(
+                ConfigurationHelper.getLong(REPLICA_RETRY_MS, props, 30_000));
+        DataSourceRouting.setStickinessWindow(
+                ConfigurationHelper.getLong(READ_YOUR_WRITES_MS, props, 2_000));
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!replicas.isEmpty() && DataSourceRouting.isReplicaAllowed()) {
+            Connection connection = getReplicaConnection();
+            if (connection != null) {
+                return connection;
+            }
+        }
+        return lease(primary);
+    }
+
+    /**
+     * Tries the available replicas in selection order.
+     * 
+     * @return A replica connection, or null if every replica is down
+     */
+    private Connection getReplicaConnection() {
+        long now = System.nanoTime();
+        for (Replica replica : selectionOrder(now)) {
+            try {
+                Connection connection = lease(replica.pool);
+                replica.down = false;
+                return connection;
+            } catch (SQLException e) {
+                replica.downUntilNanos = System.nanoTime() + retryNanos;
+                replica.down = true;
+                LOGGER.log(Level.WARNING, "Replica " + replica.name
+                        + " is unavailable, routing reads elsewhere", e);
+            }
+        }
+        return null;
+    }
+
+    private List<Replica> selectionOrder(long now) {
+        List<Replica> available = new ArrayList<>(replicas.size());
+        for (Replica replica : replicas) {
+            if (replica.isAvailable(now)) {
+                available.add(replica);
+            }
+        }
+        if (available.size() > 1) {
+            if (leastLoaded) {
+                int best = 0;
+                for (int i = 1; i < available.size(); i++) {
+                    if (available.get(i).pool.getLeasedConnections()
+                            < available.get(best).pool.getLeasedConnections()) {
+                        best = i;
+                    }
+                }
+                Collections.swap(available, 0, best);
+            } else {
+                int start = Math.floorMod(nextReplica.getAndIncrement(), available.size());
+                Collections.rotate(available, -start);
+            }
+        }
+        return available;
+    }
+
+    private Connection lease(MeteredConnectionProvider pool) throws SQLException {
+        Connection connection = pool.getConnection();
+        leases.put(connection, pool);
+        return connection;
+    }
+
+    @Override
+    public void closeConnection(Connection connection) throws SQLException {
+        MeteredConnectionProvider pool = leases.remove(connection);
+        (pool != null ? pool : primary).closeConnection(connection);
+    }
+
+    /**
+     * Takes a snapshot of every pool, keyed by "primary" or the replica name.
+     * 
+     * @return The pool metrics in routing order
+     */
+    public Map<String, PoolMetrics> getMetrics() {
+        Map<String, PoolMetrics> metrics = new LinkedHashMap<>();
+        metrics.put("primary", primary.getMetrics());
+        for (Replica replica : replicas) {
+            metrics.put(replica.name, replica.pool.getMetrics());
+        }
+        return metrics;
+    }
+
+    @Override
+    public boolean supportsAggressiveRelease() {
+        return primary.supportsAggressiveRelease();
+    }
+
+    @Override
+    public void stop() {
+        for (Replica replica : replicas) {
+            replica.pool.stop();
+        }
+        primary.stop();
+    }
+
+    @Override
+    @SuppressWarnings("rawtypes")
+    public boolean isUnwrappableAs(Class unwrapType) {
+        return ConnectionProvider.class.equals(unwrapType)
+                || RoutingConnectionProvider.class.isAssignableFrom(unwrapType);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T unwrap(Class<T> unwrapType) {
+        if (isUnwrappableAs(unwrapType)) {
+            return (T) this;
+        }
+        throw new UnknownUnwrapTypeException(unwrapType);
+    }
+}
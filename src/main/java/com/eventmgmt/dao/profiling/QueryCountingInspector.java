@@ -0,0 +1,19 @@
+package com.eventmgmt.dao.profiling;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Hibernate statement inspector that counts the statements prepared on behalf
+ * of a profiled request. Statements are passed through unchanged.
+ */
+public class QueryCountingInspector implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+        QueryProfile profile = QueryProfile.current();
+        if (profile != null) {
+            profile.recordStatement(sql);
+        }
+        return sql;
+    }
+}
@@ -0,0 +1,126 @@
+package com.eventmgmt.dao.profiling;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Statements and DAO time of one profiled request. A profile is bound to the
+ * request thread by {@link #start()}; while none is bound, recording is a
+ * single ThreadLocal lookup.
+ */
+public final class QueryProfile {
+
+    private static final ThreadLocal<QueryProfile> current = new ThreadLocal<>();
+
+    private final Map<String, Integer> statementCounts = new HashMap<>();
+    private int statementCount;
+    private long databaseNanos;
+
+    private QueryProfile() {
+    }
+
+    /**
+     * Starts profiling the current thread.
+     * 
+     * @return The new profile
+     */
+    public static QueryProfile start() {
+        QueryProfile profile = new QueryProfile();
+        current.set(profile);
+        return profile;
+    }
+
+    /**
+     * Stops profiling the current thread.
+     */
+    public static void stop() {
+        current.remove();
+    }
+
+    /**
+     * @return The profile bound to the current thread, or null
+     */
+    public static QueryProfile current() {
+        return current.get();
+    }
+
+    /**
+     * Binds a profile started on another thread, e.g. when request work is
+     * handed to an executor.
+     * 
+     * @param profile The profile to bind, or null to unbind
+     */
+    public static void bind(QueryProfile profile) {
+        if (profile != null) {
+            current.set(profile);
+        } else {
+            current.remove();
+        }
+    }
+
+    /**
+     * Adds time spent in a DAO operation to the current profile, if any.
+     * 
+     * @param nanos The elapsed time in nanoseconds
+     */
+    public static void recordDatabaseTime(long nanos) {
+        QueryProfile profile = current.get();
+        if (profile != null) {
+            profile.databaseNanos += nanos;
+        }
+    }
+
+    void recordStatement(String sql) {
+        statementCount++;
+        statementCounts.merge(shapeOf(sql), 1, Integer::sum);
+    }
+
+    /**
+     * @return The number of SQL statements prepared
+     */
+    public int getStatementCount() {
+        return statementCount;
+    }
+
+    /**
+     * @return The time spent in DAO operations in nanoseconds
+     */
+    public long getDatabaseNanos() {
+        return databaseNanos;
+    }
+
+    /**
+     * Returns the SELECT statements prepared at least {@code threshold} times,
+     * most frequent first. The same select repeated with different parameters
+     * within one request usually means lazy loading in a loop (N+1).
+     * 
+     * @param threshold The minimum number of executions
+     * @return The repeated statements and their counts
+     */
+    public Map<String, Integer> getRepeatedSelects(int threshold) {
+        List<Map.Entry<String, Integer>> repeated = new ArrayList<>();
+        for (Map.Entry<String, Integer> entry : statementCounts.entrySet()) {
+            if (entry.getValue() >= threshold && entry.getKey().regionMatches(true, 0, "select", 0, 6)) {
+                repeated.add(entry);
+            }
+        }
+        repeated.sort(Map.Entry.<String, Integer>comparingByValue().reversed());
+
+        Map<String, Integer> result = new LinkedHashMap<>();
+        for (Map.Entry<String, Integer> entry : repeated) {
+            result.put(entry.getKey(), entry.getValue());
+        }
+        return result;
+    }
+
+    /**
+     * Normalizes a statement so that executions differing only in whitespace
+     * or IN list length share a shape.
+     */
+    private static String shapeOf(String sql) {
+        return sql.trim().replaceAll("\\s+", " ").replaceAll("\\?(\\s*,\\s*\\?)+", "?");
+    }
+}
@@ -0,0 +1,183 @@
+package com.eventmgmt.filter;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.FilterConfig;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.annotation.WebFilter;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Sheds load before it reaches the DAO layer. Requests are grouped into route
+ * classes, each with its own {@link ConcurrencyLimit} that adapts to observed
+ * latency; requests beyond the limit are rejected at once with 503 and
+ * Retry-After instead of queueing for a database connection. Latency is
+ * measured over the whole request, which for these routes is dominated by
+ * the DAO calls.
+ *
+ * Metrics, static resources and the bulk export and import streams are not
+ * limited: the first must stay reachable under load, and the long-running
+ * streams would distort the latency signal.
+ */
+@WebFilter(urlPatterns = "/*", asyncSupported = true)
+public class AdmissionControlFilter implements Filter {
+
+    private static final String RETRY_AFTER_SECONDS = "1";
+
+    /**
+     * Route classes with independent limits, so that a burst of one kind of
+     * request cannot starve the others.
+     */
+    public enum RouteClass {
+        READ(20, 2, 100, 250),
+        WRITE(10, 1, 40, 500),
+        // Password hashing is CPU bound, so few logins run at once
+        LOGIN(4, 1, 16, 1000);
+
+        private final ConcurrencyLimit limit;
+
+        RouteClass(int initialLimit, int minLimit, int maxLimit, long targetLatencyMillis) {
+            this.limit = new ConcurrencyLimit(initialLimit, minLimit, maxLimit, targetLatencyMillis);
+        }
+
+        public ConcurrencyLimit getLimit() {
+            return limit;
+        }
+    }
+
+    @Override
+    public void init(FilterConfig filterConfig) throws ServletException {
+    }
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+        HttpServletRequest httpRequest = (HttpServletRequest) request;
+        HttpServletResponse httpResponse = (HttpServletResponse) response;
+        RouteClass route = classify(httpRequest);
+        if (route == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        ConcurrencyLimit limit = route.getLimit();
+        if (!limit.tryAcquire()) {
+            reject(httpResponse);
+            return;
+        }
+
+        Admission admission = new Admission(limit, httpResponse);
+        boolean handedOff = false;
+        try {
+            chain.doFilter(request, response);
+            if (request.isAsyncStarted()) {
+                // The servlet continues on another thread; release once it is done
+                request.getAsyncContext().addListener(admission);
+                handedOff = true;
+            } else {
+                admission.release(false);
+            }
+        } finally {
+            if (!handedOff) {
+                // Only has an effect if the chain threw
+                admission.release(true);
+            }
+        }
+    }
+
+    /**
+     * Determines the route class of a request.
+     *
+     * @return The route class, or null if the request is not limited
+     */
+    private static RouteClass classify(HttpServletRequest request) {
+        String path = request.getServletPath() + (request.getPathInfo() != null ? request.getPathInfo() : "");
+        String method = request.getMethod();
+        boolean read = "GET".equals(method) || "HEAD".equals(method);
+
+        if (path.equals("/")) {
+            // The home page lists upcoming events
+            return read ? RouteClass.READ : null;
+        }
+        if (!path.startsWith("/api/") || path.startsWith("/api/metrics")
+                || path.equals("/api/events/export") || path.equals("/api/events/import")) {
+            return null;
+        }
+        if (path.equals("/api/users/login") || path.equals("/api/users/register")) {
+            return RouteClass.LOGIN;
+        }
+        return read ? RouteClass.READ : RouteClass.WRITE;
+    }
+
+    private static void reject(HttpServletResponse response) throws IOException {
+        response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+        response.setHeader("Retry-After", RETRY_AFTER_SECONDS);
+        response.setContentType("application/json");
+        response.setCharacterEncoding("UTF-8");
+
+        PrintWriter out = response.getWriter();
+        out.print("{\"error\":\"Server is busy, please retry later\"}");
+        out.flush();
+    }
+
+    @Override
+    public void destroy() {
+    }
+
+    /**
+     * The slot held by one admitted request. Released exactly once, on the
+     * request thread or, for async requests, when the request completes.
+     */
+    private static final class Admission implements AsyncListener {
+
+        private final ConcurrencyLimit limit;
+        private final HttpServletResponse response;
+        private final long startNanos = System.nanoTime();
+        private final AtomicBoolean released = new AtomicBoolean();
+        private volatile boolean failed;
+
+        Admission(ConcurrencyLimit limit, HttpServletResponse response) {
+            this.limit = limit;
+            this.response = response;
+        }
+
+        void release(boolean dropped) {
+            if (!released.compareAndSet(false, true)) {
+                return;
+            }
+            if (dropped || failed || response.getStatus() >= HttpServletResponse.SC_INTERNAL_SERVER_ERROR) {
+                limit.onDropped();
+            } else {
+                limit.onSuccess(System.nanoTime() - startNanos);
+            }
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release(false);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            failed = true;
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            failed = true;
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
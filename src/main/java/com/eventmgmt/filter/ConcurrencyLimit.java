@@ -0,0 +1,133 @@
+package com.eventmgmt.filter;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Adaptive limit on the number of requests of one route class in flight,
+ * adjusted by additive increase, multiplicative decrease (AIMD) against a
+ * latency target.
+ *
+ * While the short-term average latency stays within the target and the limit
+ * is being used, the limit grows by about one per limit's worth of completed
+ * requests. When the database slows down or requests start queueing for
+ * connections, latency rises above the target and the limit is cut by 10%,
+ * at most once per average request latency so that requests already in
+ * flight do not cut it again for the same backlog. Failed or timed out
+ * requests cut it the same way.
+ */
+public class ConcurrencyLimit {
+
+    /** Requests averaged into the short-term latency. */
+    private static final double LATENCY_WINDOW = 10;
+
+    private static final double DECREASE_FACTOR = 0.9;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long targetLatencyNanos;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder rejected = new LongAdder();
+
+    private volatile double limit;
+    private double latencyNanos;
+    private long lastDecreaseNanos;
+
+    /**
+     * @param initialLimit The limit to start from
+     * @param minLimit The lowest the limit may shrink to
+     * @param maxLimit The highest the limit may grow to
+     * @param targetLatencyMillis The average latency above which the limit shrinks
+     */
+    public ConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, long targetLatencyMillis) {
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.targetLatencyNanos = TimeUnit.MILLISECONDS.toNanos(targetLatencyMillis);
+    }
+
+    /**
+     * Claims a slot for a request.
+     *
+     * @return true if the request may proceed, in which case exactly one of
+     *         {@link #onSuccess(long)} or {@link #onDropped()} must follow
+     */
+    public boolean tryAcquire() {
+        if (inFlight.incrementAndGet() > (int) limit) {
+            inFlight.decrementAndGet();
+            rejected.increment();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Releases the slot of a request that completed normally and feeds its
+     * latency into the limit.
+     *
+     * @param latencyNanos The request latency in nanoseconds
+     */
+    public void onSuccess(long latencyNanos) {
+        int inFlightAtCompletion = inFlight.getAndDecrement();
+        synchronized (this) {
+            this.latencyNanos = this.latencyNanos == 0 ? latencyNanos
+                    : this.latencyNanos + (latencyNanos - this.latencyNanos) / LATENCY_WINDOW;
+
+            if (this.latencyNanos > targetLatencyNanos) {
+                decrease();
+            } else if (inFlightAtCompletion >= limit / 2) {
+                // Only grow while the limit is actually reached, or it would drift up unused
+                limit = Math.min(maxLimit, limit + 1 / limit);
+            }
+        }
+    }
+
+    /**
+     * Releases the slot of a request that failed or timed out, and lowers
+     * the limit.
+     */
+    public void onDropped() {
+        inFlight.decrementAndGet();
+        synchronized (this) {
+            decrease();
+        }
+    }
+
+    private void decrease() {
+        long now = System.nanoTime();
+        if (lastDecreaseNanos != 0 && now - lastDecreaseNanos < latencyNanos) {
+            return;
+        }
+        lastDecreaseNanos = now;
+        limit = Math.max(minLimit, limit * DECREASE_FACTOR);
+    }
+
+    /**
+     * @return The current limit
+     */
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    /**
+     * @return The number of requests holding a slot
+     */
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * @return The number of requests rejected so far
+     */
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    /**
+     * @return The short-term average latency in nanoseconds
+     */
+    public synchronized long getLatencyNanos() {
+        return (long) latencyNanos;
+    }
+}
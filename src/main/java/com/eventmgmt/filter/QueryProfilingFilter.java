@@ -0,0 +1,129 @@
+package com.eventmgmt.filter;
+
+import com.eventmgmt.dao.profiling.QueryProfile;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.FilterConfig;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.annotation.WebFilter;
+import javax.servlet.annotation.WebInitParam;
+import javax.servlet.http.HttpServletRequest;
+
+/**
+ * Profiles a sample of requests and logs those that run too many SQL
+ * statements, spend too long in the DAO layer, or repeat the same select
+ * (probable N+1 lazy loading).
+ * 
+ * Init parameters:
+ * - sampleRate - fraction of requests profiled, 0 disables profiling
+ * - maxQueries - statement count above which a request is logged
+ * - maxDatabaseMillis - DAO time above which a request is logged
+ * - repeatThreshold - executions of one select that flag an N+1
+ */
+@WebFilter(urlPatterns = "/*", asyncSupported = true, initParams = {
+        @WebInitParam(name = "sampleRate", value = "0.05"),
+        @WebInitParam(name = "maxQueries", value = "20"),
+        @WebInitParam(name = "maxDatabaseMillis", value = "500"),
+        @WebInitParam(name = "repeatThreshold", value = "5")
+})
+public class QueryProfilingFilter implements Filter {
+
+    private static final Logger LOGGER = Logger.getLogger(QueryProfilingFilter.class.getName());
+
+    private static final int MAX_LOGGED_SQL_LENGTH = 300;
+
+    private double sampleRate;
+    private int maxQueries;
+    private long maxDatabaseNanos;
+    private int repeatThreshold;
+
+    @Override
+    public void init(FilterConfig filterConfig) throws ServletException {
+        sampleRate = Double.parseDouble(filterConfig.getInitParameter("sampleRate"));
+        maxQueries = Integer.parseInt(filterConfig.getInitParameter("maxQueries"));
+        maxDatabaseNanos = TimeUnit.MILLISECONDS.toNanos(
+                Long.parseLong(filterConfig.getInitParameter("maxDatabaseMillis")));
+        repeatThreshold = Integer.parseInt(filterConfig.getInitParameter("repeatThreshold"));
+    }
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+        if (sampleRate <= 0 || ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        QueryProfile profile = QueryProfile.start();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            QueryProfile.stop();
+            if (request.isAsyncStarted()) {
+                // The servlet continues on another thread; report once it is done
+                request.getAsyncContext().addListener(new ReportOnCompletion(profile));
+            } else {
+                report((HttpServletRequest) request, profile);
+            }
+        }
+    }
+
+    private void report(HttpServletRequest request, QueryProfile profile) {
+        Map<String, Integer> repeated = profile.getRepeatedSelects(repeatThreshold);
+        boolean tooManyQueries = profile.getStatementCount() > maxQueries;
+        boolean tooSlow = profile.getDatabaseNanos() > maxDatabaseNanos;
+        if (!tooManyQueries && !tooSlow && repeated.isEmpty()) {
+            return;
+        }
+
+        StringBuilder message = new StringBuilder()
+                .append(request.getMethod()).append(' ').append(request.getRequestURI())
+                .append(": ").append(profile.getStatementCount()).append(" statements, ")
+                .append(TimeUnit.NANOSECONDS.toMillis(profile.getDatabaseNanos())).append(" ms in DAO calls");
+        repeated.forEach((sql, count) -> message.append("\n  probable N+1, ").append(count).append("x: ")
+                .append(sql.length() > MAX_LOGGED_SQL_LENGTH ? sql.substring(0, MAX_LOGGED_SQL_LENGTH) + "..." : sql));
+        LOGGER.warning(message.toString());
+    }
+
+    @Override
+    public void destroy() {
+    }
+
+    private final class ReportOnCompletion implements AsyncListener {
+
+        private final QueryProfile profile;
+
+        ReportOnCompletion(QueryProfile profile) {
+            this.profile = profile;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            report((HttpServletRequest) event.getSuppliedRequest(), profile);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // Dispatched requests that start async again still need a report
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
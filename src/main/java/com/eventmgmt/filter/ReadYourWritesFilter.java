@@ -0,0 +1,55 @@
+package com.eventmgmt.filter;
+
+import com.eventmgmt.dao.pool.DataSourceRouting;
+import com.eventmgmt.util.SessionTokens;
+
+import java.io.IOException;
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.FilterConfig;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.annotation.WebFilter;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpSession;
+
+/**
+ * Binds the client to the request thread so that reads following a write by
+ * the same client are served by the primary database rather than a possibly
+ * lagging replica. Authenticated clients are identified by the user of their
+ * token, which is the same on every instance; others by their HTTP session,
+ * if any. Servlets that continue the request on another thread carry the
+ * binding over themselves.
+ */
+@WebFilter(urlPatterns = "/*", asyncSupported = true)
+public class ReadYourWritesFilter implements Filter {
+
+    @Override
+    public void init(FilterConfig filterConfig) throws ServletException {
+    }
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+        DataSourceRouting.bindClient(clientKey((HttpServletRequest) request));
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            DataSourceRouting.unbindClient();
+        }
+    }
+
+    private static String clientKey(HttpServletRequest request) {
+        SessionTokens.Claims claims = SessionTokens.authenticate(request);
+        if (claims != null) {
+            return claims.userId();
+        }
+        HttpSession session = request.getSession(false);
+        return session != null ? session.getId() : null;
+    }
+
+    @Override
+    public void destroy() {
+    }
+}
@@ -0,0 +1,45 @@
+package com.eventmgmt.listener;
+
+import com.eventmgmt.logging.AsyncHandler;
+
+import java.util.logging.ConsoleHandler;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.servlet.ServletContextEvent;
+import javax.servlet.ServletContextListener;
+import javax.servlet.annotation.WebListener;
+
+/**
+ * Routes the application's log records through an {@link AsyncHandler} while
+ * the web application runs, so request threads never write to the console
+ * themselves.
+ */
+@WebListener
+public class AsyncLogging implements ServletContextListener {
+
+    private static final String APPLICATION_LOGGER = "com.eventmgmt";
+
+    private static final int BUFFER_CAPACITY = 8192;
+
+    /** Held strongly, since the LogManager only keeps weak references to loggers. */
+    private Logger logger;
+    private AsyncHandler handler;
+
+    @Override
+    public void contextInitialized(ServletContextEvent sce) {
+        ConsoleHandler console = new ConsoleHandler();
+        console.setLevel(Level.ALL);
+
+        handler = new AsyncHandler(console, BUFFER_CAPACITY);
+        logger = Logger.getLogger(APPLICATION_LOGGER);
+        logger.addHandler(handler);
+        logger.setUseParentHandlers(false);
+    }
+
+    @Override
+    public void contextDestroyed(ServletContextEvent sce) {
+        logger.setUseParentHandlers(true);
+        logger.removeHandler(handler);
+        handler.close();
+    }
+}
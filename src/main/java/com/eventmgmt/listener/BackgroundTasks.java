@@ -0,0 +1,69 @@
+package com.eventmgmt.listener;
+
+import com.eventmgmt.repository.PopularFilters;
+import com.eventmgmt.repository.UpcomingEventIndex;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.servlet.ServletContextEvent;
+import javax.servlet.ServletContextListener;
+import javax.servlet.annotation.WebListener;
+
+/**
+ * Owns the application's background scheduler and the periodic tasks that
+ * keep in-memory indexes fresh. Tasks start when the web application starts
+ * and stop with it.
+ */
+@WebListener
+public class BackgroundTasks implements ServletContextListener {
+
+    private static final Logger LOGGER = Logger.getLogger(BackgroundTasks.class.getName());
+
+    private static final long EXPIRE_INTERVAL_SECONDS = 30;
+
+    /** Full reloads pick up events written by other application instances. */
+    private static final long RELOAD_INTERVAL_MINUTES = 10;
+
+    private static final long POPULAR_FILTERS_INTERVAL_MINUTES = 5;
+
+    private ScheduledExecutorService scheduler;
+
+    @Override
+    public void contextInitialized(ServletContextEvent sce) {
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "eventmgmt-background");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        UpcomingEventIndex upcomingIndex = UpcomingEventIndex.getInstance();
+        // The first load runs right away; requests use the database until it completes
+        schedule("upcoming-events-reload", upcomingIndex::reload,
+                0, TimeUnit.MINUTES.toSeconds(RELOAD_INTERVAL_MINUTES));
+        schedule("upcoming-events-expire", upcomingIndex::expire, EXPIRE_INTERVAL_SECONDS, EXPIRE_INTERVAL_SECONDS);
+        schedule("popular-filters-refresh", PopularFilters.getInstance()::refresh,
+                0, TimeUnit.MINUTES.toSeconds(POPULAR_FILTERS_INTERVAL_MINUTES));
+    }
+
+    @Override
+    public void contextDestroyed(ServletContextEvent sce) {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * Runs a task at a fixed delay. Failures are logged and the task keeps
+     * its schedule, since a periodic task that throws is never run again.
+     */
+    private void schedule(String name, Runnable task, long initialDelaySeconds, long delaySeconds) {
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.WARNING, "Background task " + name + " failed", e);
+            }
+        }, initialDelaySeconds, delaySeconds, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,25 @@
+package com.eventmgmt.listener;
+
+import com.eventmgmt.util.SessionTokens;
+
+import javax.servlet.ServletContextEvent;
+import javax.servlet.ServletContextListener;
+import javax.servlet.annotation.WebListener;
+
+/**
+ * Loads the token keys when the web application starts, so that a missing or
+ * invalid {@code EVENTMGMT_TOKEN_KEYS} fails the deployment instead of every
+ * authenticated request.
+ */
+@WebListener
+public class TokenKeyCheck implements ServletContextListener {
+
+    @Override
+    public void contextInitialized(ServletContextEvent sce) {
+        SessionTokens.getInstance();
+    }
+
+    @Override
+    public void contextDestroyed(ServletContextEvent sce) {
+    }
+}
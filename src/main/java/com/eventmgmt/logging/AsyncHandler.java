@@ -0,0 +1,156 @@
+package com.eventmgmt.logging;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.ErrorManager;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+
+/**
+ * A JUL handler that hands records to a background thread through a bounded
+ * ring buffer, so that logging threads never wait on the console or a file.
+ * The writer thread polls the buffer rather than waiting on it, so publishing
+ * a record never has to wake another thread.
+ * 
+ * Walking the stack to find the calling method is the most expensive part of
+ * a log call, so it is only done for WARNING and above. Other records name
+ * their logger as the source class instead.
+ * 
+ * Logging never blocks: once the buffer is three quarters full, records below
+ * WARNING are sampled, and once it is full, records are dropped. The number
+ * of records lost this way is reported through the target handler as soon as
+ * the buffer drains.
+ */
+public class AsyncHandler extends Handler {
+
+    /** Records below WARNING kept while the buffer is under pressure, one in N. */
+    private static final int SAMPLE_RATE = 16;
+
+    private static final int MAX_BATCH_SIZE = 256;
+
+    private static final long IDLE_SLEEP_MILLIS = 10;
+
+    private static final long CLOSE_TIMEOUT_MILLIS = 2000;
+
+    private final Handler target;
+    private final BlockingQueue<LogRecord> buffer;
+    private final int samplingThreshold;
+    private final AtomicLong sampleCounter = new AtomicLong();
+    private final LongAdder dropped = new LongAdder();
+    private final Thread worker;
+    private volatile boolean closed;
+
+    /**
+     * Creates the handler and starts its writer thread.
+     * 
+     * @param target The handler that formats and writes the records
+     * @param capacity The maximum number of records waiting to be written
+     */
+    public AsyncHandler(Handler target, int capacity) {
+        this.target = target;
+        this.buffer = new ArrayBlockingQueue<>(capacity);
+        this.samplingThreshold = capacity - capacity / 4;
+        this.worker = new Thread(this::drain, "eventmgmt-log-writer");
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    @Override
+    public void publish(LogRecord record) {
+        if (closed || !isLoggable(record)) {
+            return;
+        }
+        boolean important = record.getLevel().intValue() >= Level.WARNING.intValue();
+        if (important) {
+            // The caller is inferred from the stack, so this must happen on the logging thread
+            record.getSourceClassName();
+        } else {
+            record.setSourceClassName(record.getLoggerName());
+        }
+
+        if (!important
+                && buffer.size() >= samplingThreshold
+                && sampleCounter.getAndIncrement() % SAMPLE_RATE != 0) {
+            dropped.increment();
+            return;
+        }
+        if (!buffer.offer(record)) {
+            dropped.increment();
+        }
+    }
+
+    /**
+     * Flushes the target handler. Records still in the buffer are written by
+     * the writer thread shortly after.
+     */
+    @Override
+    public void flush() {
+        target.flush();
+    }
+
+    /**
+     * Stops the writer thread after it has written the buffered records, then
+     * closes the target handler.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        worker.interrupt();
+        try {
+            worker.join(CLOSE_TIMEOUT_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        target.close();
+    }
+
+    private void drain() {
+        List<LogRecord> batch = new ArrayList<>(MAX_BATCH_SIZE);
+        while (true) {
+            if (buffer.drainTo(batch, MAX_BATCH_SIZE) > 0) {
+                write(batch);
+                batch.clear();
+            } else if (closed) {
+                break;
+            } else {
+                try {
+                    Thread.sleep(IDLE_SLEEP_MILLIS);
+                } catch (InterruptedException e) {
+                    // close() was called; the next passes write what is left
+                }
+            }
+        }
+        reportDrops();
+        target.flush();
+    }
+
+    private void write(List<LogRecord> batch) {
+        for (LogRecord record : batch) {
+            try {
+                target.publish(record);
+            } catch (RuntimeException e) {
+                reportError("Failed to write log record", e, ErrorManager.WRITE_FAILURE);
+            }
+        }
+        reportDrops();
+        target.flush();
+    }
+
+    private void reportDrops() {
+        long count = dropped.sumThenReset();
+        if (count > 0) {
+            LogRecord record = new LogRecord(Level.WARNING,
+                    "Logging buffer full, {0} log records were dropped");
+            record.setParameters(new Object[] { count });
+            record.setLoggerName(AsyncHandler.class.getName());
+            record.setSourceClassName(AsyncHandler.class.getName());
+            record.setSourceMethodName("publish");
+            target.publish(record);
+        }
+    }
+}
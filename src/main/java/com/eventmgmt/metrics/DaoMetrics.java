@@ -0,0 +1,37 @@
+package com.eventmgmt.metrics;
+
+import java.util.Collections;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Process-wide registry of DAO operation metrics, keyed by
+ * "DaoClass.method", e.g. "EventDAO.findByType".
+ */
+public final class DaoMetrics {
+
+    private static final ConcurrentMap<String, OperationMetrics> operations = new ConcurrentHashMap<>();
+
+    private DaoMetrics() {
+    }
+
+    /**
+     * Returns the metrics of an operation, creating them on first use.
+     * 
+     * @param name The operation name
+     * @return The operation's metrics
+     */
+    public static OperationMetrics operation(String name) {
+        OperationMetrics metrics = operations.get(name);
+        return metrics != null ? metrics : operations.computeIfAbsent(name, key -> new OperationMetrics());
+    }
+
+    /**
+     * @return All operations recorded so far, sorted by name
+     */
+    public static SortedMap<String, OperationMetrics> getOperations() {
+        return Collections.unmodifiableSortedMap(new TreeMap<String, OperationMetrics>(operations));
+    }
+}
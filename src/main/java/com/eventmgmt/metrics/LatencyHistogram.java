@@ -0,0 +1,101 @@
+package com.eventmgmt.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free histogram of latencies recorded in nanoseconds.
+ * 
+ * Values are grouped into log-linear buckets: every power of two is split into
+ * four sub-buckets, so a reported percentile is at most 25% above the real
+ * value. Recording is a couple of atomic increments and never allocates.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 2;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = SUB_BUCKETS * (64 - SUB_BUCKET_BITS + 1);
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    /**
+     * Records a single latency.
+     * 
+     * @param nanos The latency in nanoseconds; negative values are ignored
+     */
+    public void record(long nanos) {
+        if (nanos < 0) {
+            return;
+        }
+        counts.incrementAndGet(bucketOf(nanos));
+        count.increment();
+        sum.add(nanos);
+        max.accumulate(nanos);
+    }
+
+    /**
+     * @return The number of recorded values
+     */
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * @return The sum of all recorded values in nanoseconds
+     */
+    public long getSum() {
+        return sum.sum();
+    }
+
+    /**
+     * @return The largest recorded value in nanoseconds
+     */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * Estimates a percentile of the recorded values.
+     * 
+     * @param quantile The quantile between 0 and 1, e.g. 0.99
+     * @return The upper bound of the bucket holding the quantile in
+     *         nanoseconds, or 0 if nothing was recorded
+     */
+    public long percentile(double quantile) {
+        long total = getCount();
+        if (total == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(quantile * total);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= rank && seen > 0) {
+                return Math.min(upperBoundOf(i), getMax());
+            }
+        }
+        return getMax();
+    }
+
+    private static int bucketOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return SUB_BUCKETS * (exponent - SUB_BUCKET_BITS + 1) + subBucket;
+    }
+
+    private static long upperBoundOf(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = bucket / SUB_BUCKETS - 1;
+        long subBucket = bucket % SUB_BUCKETS;
+        return ((SUB_BUCKETS + subBucket + 1) << shift) - 1;
+    }
+}
@@ -0,0 +1,49 @@
+package com.eventmgmt.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency, row and error counters of a single DAO operation.
+ */
+public class OperationMetrics {
+
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LongAdder rows = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+
+    /**
+     * Records one execution of the operation.
+     * 
+     * @param nanos  The time taken in nanoseconds
+     * @param rows   The number of rows returned
+     * @param failed Whether the operation threw
+     */
+    public void record(long nanos, long rows, boolean failed) {
+        latency.record(nanos);
+        this.rows.add(rows);
+        if (failed) {
+            errors.increment();
+        }
+    }
+
+    /**
+     * @return The latency histogram, including failed executions
+     */
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+
+    /**
+     * @return The total number of rows returned
+     */
+    public long getRows() {
+        return rows.sum();
+    }
+
+    /**
+     * @return The number of executions that threw
+     */
+    public long getErrors() {
+        return errors.sum();
+    }
+}
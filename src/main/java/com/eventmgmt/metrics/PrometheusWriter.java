@@ -0,0 +1,93 @@
+package com.eventmgmt.metrics;
+
+import java.io.PrintWriter;
+
+/**
+ * Writes metrics in the Prometheus text exposition format (version 0.0.4).
+ */
+public class PrometheusWriter {
+
+    /** Content type of the exposition format. */
+    public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private static final double NANOS_PER_SECOND = 1_000_000_000d;
+
+    private final PrintWriter out;
+
+    public PrometheusWriter(PrintWriter out) {
+        this.out = out;
+    }
+
+    /**
+     * Starts a metric family by writing its HELP and TYPE lines.
+     * 
+     * @param name The metric name
+     * @param type counter, gauge or summary
+     * @param help A one-line description
+     * @return This writer
+     */
+    public PrometheusWriter family(String name, String type, String help) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+        return this;
+    }
+
+    /**
+     * Writes a single sample.
+     * 
+     * @param name   The sample name, e.g. the family name or name_count
+     * @param value  The sample value
+     * @param labels Label names and values in name-value pairs
+     * @return This writer
+     */
+    public PrometheusWriter sample(String name, double value, String... labels) {
+        out.append(name);
+        if (labels.length > 0) {
+            out.append('{');
+            for (int i = 0; i < labels.length; i += 2) {
+                if (i > 0) {
+                    out.append(',');
+                }
+                out.append(labels[i]).append("=\"");
+                escape(labels[i + 1]);
+                out.append('"');
+            }
+            out.append('}');
+        }
+        out.append(' ').append(format(value)).append('\n');
+        return this;
+    }
+
+    /**
+     * Converts nanoseconds to seconds, the base unit for durations.
+     */
+    public static double seconds(long nanos) {
+        return nanos / NANOS_PER_SECOND;
+    }
+
+    private void escape(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\':
+                    out.append("\\\\");
+                    break;
+                case '"':
+                    out.append("\\\"");
+                    break;
+                case '\n':
+                    out.append("\\n");
+                    break;
+                default:
+                    out.append(c);
+            }
+        }
+    }
+
+    private static String format(double value) {
+        if (value == Math.rint(value) && !Double.isInfinite(value) && Math.abs(value) < 1e15) {
+            return Long.toString((long) value);
+        }
+        return Double.toString(value);
+    }
+}
@@ -1,5 +1,6 @@
 package com.eventmgmt.model;
 
+import javax.persistence.Cacheable;
 import javax.persistence.Entity;
 import javax.persistence.Table;
 import javax.persistence.Column;
@@ -9,9 +10,15 @@ import javax.persistence.ManyToOne;
 import javax.persistence.JoinColumn;
 import javax.persistence.FetchType;
 import java.time.LocalDateTime;
+import java.util.UUID;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.proxy.HibernateProxy;
 
 @Entity
 @Table(name = "events")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "event")
 public class Event extends BaseEntity {
     @Column(nullable = false)
     private String name;
@@ -95,6 +102,19 @@ public class Event extends BaseEntity {
         this.creator = creator;
     }
 
+    /**
+     * Returns the ID of the creator without loading the creator when it is
+     * still a lazy proxy.
+     * 
+     * @return The creator's ID, or null if the event has no creator
+     */
+    public UUID getCreatorId() {
+        if (creator instanceof HibernateProxy) {
+            return (UUID) ((HibernateProxy) creator).getHibernateLazyInitializer().getIdentifier();
+        }
+        return creator != null ? creator.getId() : null;
+    }
+
     public Integer getCapacity() {
         return capacity;
     }
@@ -2,15 +2,20 @@ package com.eventmgmt.model;
 
 import java.util.ArrayList;
 import java.util.List;
+import javax.persistence.Cacheable;
 import javax.persistence.Entity;
 import javax.persistence.Table;
 import javax.persistence.Column;
 import javax.persistence.OneToMany;
 import javax.persistence.Enumerated;
 import javax.persistence.EnumType;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
 @Table(name = "users")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "user")
 public class User extends BaseEntity {
     @Column(nullable = false, unique = true)
     private String email;
@@ -22,7 +27,16 @@ public class User extends BaseEntity {
     @Column(nullable = false)
     private UserRole role;
 
+    /**
+     * Epoch milliseconds; refresh tokens issued before then are refused.
+     * Only written by {@code UserDAO.revokeTokens}, so that saving a stale
+     * copy of the user cannot bring revoked tokens back.
+     */
+    @Column(name = "tokens_revoked_at", insertable = false, updatable = false)
+    private Long tokensRevokedAt;
+
     @OneToMany(mappedBy = "creator")
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "user.createdEvents")
     private List<Event> createdEvents = new ArrayList<>();
 
     public String getEmail() {
@@ -49,6 +63,10 @@ public class User extends BaseEntity {
         this.role = role;
     }
 
+    public Long getTokensRevokedAt() {
+        return tokensRevokedAt;
+    }
+
     public List<Event> getCreatedEvents() {
         return createdEvents;
     }
@@ -0,0 +1,65 @@
+package com.eventmgmt.model.dto;
+
+import com.eventmgmt.model.Event;
+import com.eventmgmt.model.EventType;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Immutable, lightweight view of an event for list pages.
+ * Built directly by JPQL constructor expressions, so the description and
+ * creator of the event are never loaded.
+ */
+public final class EventSummary {
+    private final UUID id;
+    private final String name;
+    private final LocalDateTime eventDate;
+    private final String location;
+    private final EventType type;
+    private final String imgUrl;
+
+    public EventSummary(UUID id, String name, LocalDateTime eventDate, String location,
+            EventType type, String imgUrl) {
+        this.id = id;
+        this.name = name;
+        this.eventDate = eventDate;
+        this.location = location;
+        this.type = type;
+        this.imgUrl = imgUrl;
+    }
+
+    /**
+     * Creates the summary of a loaded event.
+     * 
+     * @param event The event
+     * @return The event's summary
+     */
+    public static EventSummary from(Event event) {
+        return new EventSummary(event.getId(), event.getName(), event.getEventDate(), event.getLocation(),
+                event.getType(), event.getImgUrl());
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public LocalDateTime getEventDate() {
+        return eventDate;
+    }
+
+    public String getLocation() {
+        return location;
+    }
+
+    public EventType getType() {
+        return type;
+    }
+
+    public String getImgUrl() {
+        return imgUrl;
+    }
+}
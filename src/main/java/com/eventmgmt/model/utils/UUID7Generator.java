@@ -1,12 +1,13 @@
 package com.eventmgmt.model.utils;
 
+import java.io.Serializable;
 import org.hibernate.engine.spi.SharedSessionContractImplementor;
 import org.hibernate.id.IdentifierGenerator;
 import com.github.f4b6a3.uuid.UuidCreator;
 
 public class UUID7Generator implements IdentifierGenerator {
     @Override
-    public Object generate(SharedSessionContractImplementor session, Object object) {
+    public Serializable generate(SharedSessionContractImplementor session, Object object) {
         return UuidCreator.getTimeOrderedEpoch();
     }
 }
@@ -1,14 +1,23 @@
 package com.eventmgmt.repository;
 
 import com.eventmgmt.dao.EventDAO;
+import com.eventmgmt.dao.pool.DataSourceRouting;
 import com.eventmgmt.model.Event;
 import com.eventmgmt.model.EventType;
+import com.eventmgmt.model.dto.EventSummary;
+import com.eventmgmt.util.ConditionalGet;
+import com.eventmgmt.util.IdUtil;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 /**
  * Repository class for Event entities.
@@ -17,10 +26,52 @@ import java.util.Optional;
  */
 public class EventRepository {
 
+    /**
+     * How long a summary search result is reused for identical searches.
+     * Results are keyed by the events fingerprint, so a write by any
+     * application instance stops reuse as soon as the fingerprint changes.
+     */
+    private static final long SEARCH_WINDOW_MILLIS = 1000;
+
+    /** Shared by all repositories, since each servlet creates its own. */
+    private static final SingleFlight<SearchKey, List<EventSummary>> summarySearches =
+            new SingleFlight<>(SEARCH_WINDOW_MILLIS);
+
+    private static final String EVENTS_TABLE = "events";
+
+    /**
+     * The events fingerprint, reused for the same window as search results.
+     * Every events list request reads it, and otherwise each of them would
+     * aggregate over the whole table. Writes by another instance therefore
+     * show up in tags within the window, like in search results.
+     */
+    private static final SingleFlight<String, String> fingerprints = new SingleFlight<>(SEARCH_WINDOW_MILLIS);
+
+    /**
+     * Identifies equivalent summary searches against the same version of the
+     * events table. Text criteria are lowercased, since both the full-text
+     * and the location matching ignore case.
+     */
+    private record SearchKey(String fingerprint, String query, String name, String location, EventType type,
+            LocalDateTime startDate, LocalDateTime endDate) {
+
+        static SearchKey of(String fingerprint, String query, String name, String location, EventType type,
+                LocalDateTime startDate, LocalDateTime endDate) {
+            return new SearchKey(fingerprint, query, lowerCase(name), lowerCase(location), type,
+                    startDate, endDate);
+        }
+
+        private static String lowerCase(String value) {
+            return value != null ? value.toLowerCase(Locale.ROOT) : null;
+        }
+    }
+
     private final EventDAO eventDAO;
+    private final UpcomingEventIndex upcomingIndex;
 
     public EventRepository() {
         this.eventDAO = new EventDAO();
+        this.upcomingIndex = UpcomingEventIndex.getInstance();
     }
 
     /**
@@ -39,7 +90,7 @@ public class EventRepository {
      * @return An Optional containing the event if found
      */
     public Optional<Event> findById(String id) {
-        return eventDAO.findById(id);
+        return IdUtil.parse(id).flatMap(eventDAO::findById);
     }
 
     /**
@@ -49,7 +100,38 @@ public class EventRepository {
      * @return The saved event
      */
     public Event save(Event event) {
-        return eventDAO.save(event);
+        Event saved = eventDAO.save(event);
+        upcomingIndex.put(EventSummary.from(saved));
+        invalidateReads();
+        return saved;
+    }
+
+    /**
+     * Saves a batch of events in a single transaction.
+     * 
+     * @param events The events to save
+     * @return The saved events
+     */
+    public List<Event> saveAll(Collection<Event> events) {
+        List<Event> saved = eventDAO.saveAll(events);
+        for (Event event : saved) {
+            upcomingIndex.put(EventSummary.from(event));
+        }
+        invalidateReads();
+        return saved;
+    }
+
+    /**
+     * Streams all events, oldest first, without loading them into memory.
+     * Events are read in pages, each in its own short transaction, and are
+     * detached when the action sees them, so the action must not navigate
+     * lazy associations. See {@link EventDAO#scrollAll(Consumer)}.
+     * 
+     * @param action The action to apply to each event
+     * @return The number of events streamed
+     */
+    public long forEachEvent(Consumer<Event> action) {
+        return eventDAO.scrollAll(action);
     }
 
     /**
@@ -59,7 +141,43 @@ public class EventRepository {
      * @return true if the event was found and deleted, false otherwise
      */
     public boolean deleteById(String id) {
-        return eventDAO.deleteById(id);
+        return IdUtil.parse(id).map(eventId -> {
+            boolean deleted = eventDAO.deleteById(eventId);
+            if (deleted) {
+                upcomingIndex.remove(eventId);
+                invalidateReads();
+            }
+            return deleted;
+        }).orElse(false);
+    }
+
+    /**
+     * Gets a fingerprint of the event table that changes whenever an event is
+     * created, updated or deleted. The fingerprint is read from the database
+     * at most once per {@link #SEARCH_WINDOW_MILLIS}, except for clients that
+     * have just written, and immediately after a write through this instance.
+     * 
+     * @return The fingerprint
+     */
+    public String getEventsFingerprint() {
+        if (DataSourceRouting.isPrimaryRequired()) {
+            return readEventsFingerprint();
+        }
+        return fingerprints.get(EVENTS_TABLE, this::readEventsFingerprint);
+    }
+
+    private String readEventsFingerprint() {
+        Object[] lastUpdateAndCount = eventDAO.findLastUpdateAndCount();
+        return ConditionalGet.version((LocalDateTime) lastUpdateAndCount[0])
+                + "-" + Long.toHexString((Long) lastUpdateAndCount[1]);
+    }
+
+    /**
+     * Forgets reused fingerprints and search results after a write.
+     */
+    private static void invalidateReads() {
+        fingerprints.invalidate();
+        summarySearches.invalidate();
     }
 
     /**
@@ -117,6 +235,55 @@ public class EventRepository {
         return eventDAO.findUpcomingEvents(limit);
     }
 
+    /**
+     * Finds summaries of upcoming events. Served from the in-memory
+     * {@link UpcomingEventIndex} once it has been loaded.
+     * 
+     * @param limit The maximum number of events to return
+     * @return A list of upcoming event summaries
+     */
+    public List<EventSummary> findUpcomingSummaries(int limit) {
+        if (upcomingIndex.isLoaded()) {
+            return upcomingIndex.findUpcoming(limit);
+        }
+        return eventDAO.findUpcomingSummaries(limit);
+    }
+
+    /**
+     * Gets the locations with the most upcoming events, from the periodically
+     * refreshed {@link PopularFilters}.
+     * 
+     * @return Popular locations, most popular first
+     */
+    public List<String> getPopularLocations() {
+        return PopularFilters.getInstance().getLocations();
+    }
+
+    /**
+     * Gets all event types ordered by their number of upcoming events.
+     * 
+     * @return Event types, most popular first
+     */
+    public List<EventType> getEventTypesByPopularity() {
+        return PopularFilters.getInstance().getTypes();
+    }
+
+    /**
+     * Finds summaries of events in a date range. Concurrent identical calls
+     * share one query, see {@link #searchEventSummaries}.
+     * 
+     * @param fingerprint The events fingerprint read before the call
+     * @param startDate   The start date
+     * @param endDate     The end date
+     * @return An unmodifiable list of event summaries within the date range
+     */
+    public List<EventSummary> findSummariesByDateRange(String fingerprint, LocalDate startDate, LocalDate endDate) {
+        LocalDateTime start = startDate.atStartOfDay();
+        LocalDateTime end = endDate.atTime(LocalTime.MAX);
+        return coalesce(SearchKey.of(fingerprint, "dateRange", null, null, null, start, end),
+                () -> Collections.unmodifiableList(eventDAO.findSummariesByDateRange(start, end)));
+    }
+
     /**
      * Finds events created by a user.
      * 
@@ -124,13 +291,13 @@ public class EventRepository {
      * @return A list of events created by the user
      */
     public List<Event> findByCreator(String userId) {
-        return eventDAO.findByCreator(userId);
+        return IdUtil.parse(userId).map(eventDAO::findByCreator).orElse(Collections.emptyList());
     }
 
     /**
      * Searches for events based on multiple criteria.
      * 
-     * @param name      Event name (partial match)
+     * @param name      Words to search for in the event name or description
      * @param location  Event location (partial match)
      * @param type      Event type
      * @param startDate Minimum event date
@@ -146,6 +313,43 @@ public class EventRepository {
         return eventDAO.searchEvents(name, location, type, startDateTime, endDateTime);
     }
 
+    /**
+     * Searches for event summaries based on multiple criteria.
+     * Concurrent identical searches share one query, and its result is
+     * reused for {@link #SEARCH_WINDOW_MILLIS} by searches passing the same
+     * fingerprint. Since the fingerprint is read before the query runs, the
+     * result is never older than the fingerprint, which callers may
+     * therefore use as its version. Clients that have just written are not
+     * coalesced, so they see their writes.
+     * 
+     * @param fingerprint The events fingerprint read before the call, see
+     *                  {@link #getEventsFingerprint()}
+     * @param name      Words to search for in the event name or description
+     * @param location  Event location (partial match)
+     * @param type      Event type
+     * @param startDate Minimum event date
+     * @param endDate   Maximum event date
+     * @return An unmodifiable list of event summaries matching the criteria
+     */
+    public List<EventSummary> searchEventSummaries(String fingerprint, String name, String location,
+            EventType type, LocalDate startDate, LocalDate endDate) {
+
+        LocalDateTime startDateTime = startDate != null ? startDate.atStartOfDay() : null;
+        LocalDateTime endDateTime = endDate != null ? endDate.atTime(LocalTime.MAX) : null;
+
+        return coalesce(SearchKey.of(fingerprint, "search", name, location, type, startDateTime, endDateTime),
+                () -> Collections.unmodifiableList(
+                        eventDAO.searchEventSummaries(name, location, type, startDateTime, endDateTime)));
+    }
+
+    private List<EventSummary> coalesce(SearchKey key, Supplier<List<EventSummary>> loader) {
+        if (DataSourceRouting.isPrimaryRequired()) {
+            // A shared flight may run on a replica that has not caught up with this client's write
+            return loader.get();
+        }
+        return summarySearches.get(key, loader);
+    }
+
     /**
      * Finds events with filtered criteria, useful for search functionality.
      * 
@@ -155,32 +359,59 @@ public class EventRepository {
      * @return A list of events matching the filters
      */
     public List<Event> getFilteredEvents(String location, String activity, String dateStr) {
-        EventType type = null;
+        EventType type = parseType(activity);
+        LocalDate date = parseDate(dateStr);
 
+        // Use the search method with the parsed filters
+        // Using activity as name filter if it's not a valid EventType
+        return searchEvents(
+                type == null ? activity : null,
+                location,
+                type,
+                date,
+                date);
+    }
+
+    /**
+     * Finds event summaries with filtered criteria, useful for list pages.
+     * Takes the same filters as {@link #getFilteredEvents(String, String, String)},
+     * and the fingerprint as {@link #searchEventSummaries}.
+     * 
+     * @return A list of event summaries matching the filters
+     */
+    public List<EventSummary> getFilteredEventSummaries(String fingerprint, String location, String activity,
+            String dateStr) {
+        EventType type = parseType(activity);
+        LocalDate date = parseDate(dateStr);
+
+        return searchEventSummaries(
+                fingerprint,
+                type == null ? activity : null,
+                location,
+                type,
+                date,
+                date);
+    }
+
+    private EventType parseType(String activity) {
         if (activity != null && !activity.trim().isEmpty()) {
             try {
-                type = EventType.valueOf(activity.toUpperCase());
+                return EventType.valueOf(activity.toUpperCase());
             } catch (IllegalArgumentException e) {
                 // Not a valid enum value, will use as name search instead
             }
         }
+        return null;
+    }
 
-        LocalDate date = null;
+    private LocalDate parseDate(String dateStr) {
         if (dateStr != null && !dateStr.trim().isEmpty()) {
             try {
-                date = LocalDate.parse(dateStr);
+                return LocalDate.parse(dateStr);
             } catch (Exception e) {
                 // Invalid date format, ignore this filter
             }
         }
-
-        // Use the search method with the parsed filters
-        // Using activity as name filter if it's not a valid EventType
-        return searchEvents(
-                type == null ? activity : null,
-                location,
-                type,
-                date,
-                date);
+        return null;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,93 @@
+package com.eventmgmt.repository;
+
+import com.eventmgmt.dao.EventDAO;
+import com.eventmgmt.model.EventType;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Popular locations and event types, aggregated over upcoming events.
+ * 
+ * The aggregation runs in the background through {@link #refresh()} and
+ * replaces an immutable snapshot in one atomic swap, so readers never run
+ * the query and always see a consistent pair of lists.
+ */
+public final class PopularFilters {
+
+    /** Number of locations offered on the homepage. */
+    private static final int MAX_LOCATIONS = 10;
+
+    private static final PopularFilters instance = new PopularFilters();
+
+    private final EventDAO eventDAO = new EventDAO();
+
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>(
+            new Snapshot(Collections.emptyList(), allTypes(Collections.emptyList())));
+
+    private PopularFilters() {
+    }
+
+    /**
+     * @return The shared instance
+     */
+    public static PopularFilters getInstance() {
+        return instance;
+    }
+
+    /**
+     * @return Locations with the most upcoming events, most popular first;
+     *         empty until the first refresh
+     */
+    public List<String> getLocations() {
+        return snapshot.get().locations;
+    }
+
+    /**
+     * @return All event types, those with the most upcoming events first
+     */
+    public List<EventType> getTypes() {
+        return snapshot.get().types;
+    }
+
+    /**
+     * Recomputes the aggregation and publishes the new snapshot.
+     */
+    public void refresh() {
+        List<String> locations = new ArrayList<>();
+        for (Object[] row : eventDAO.countUpcomingByLocation(MAX_LOCATIONS)) {
+            locations.add((String) row[0]);
+        }
+        List<EventType> popularTypes = new ArrayList<>();
+        for (Object[] row : eventDAO.countUpcomingByType()) {
+            popularTypes.add((EventType) row[0]);
+        }
+        snapshot.set(new Snapshot(Collections.unmodifiableList(locations), allTypes(popularTypes)));
+    }
+
+    /**
+     * Appends the types without upcoming events so that every type can still
+     * be picked as a filter.
+     */
+    private static List<EventType> allTypes(List<EventType> popularTypes) {
+        List<EventType> types = new ArrayList<>(popularTypes);
+        Set<EventType> remaining = EnumSet.allOf(EventType.class);
+        remaining.removeAll(popularTypes);
+        types.addAll(remaining);
+        return Collections.unmodifiableList(types);
+    }
+
+    private static final class Snapshot {
+        final List<String> locations;
+        final List<EventType> types;
+
+        Snapshot(List<String> locations, List<EventType> types) {
+            this.locations = locations;
+            this.types = types;
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.eventmgmt.repository;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent identical lookups: the first caller for a key runs the
+ * loader, and callers arriving while it runs wait for and share its result
+ * instead of running their own. The result may also be kept for a short
+ * window after it completes, so that a burst of identical requests costs a
+ * single query.
+ *
+ * Shared results are handed to every caller, so they must be immutable.
+ * Failures are not cached.
+ *
+ * @param <K> The key type, identifying equivalent lookups
+ * @param <V> The result type
+ */
+final class SingleFlight<K, V> {
+
+    /** Completed entries are purged once the map grows past this size. */
+    private static final int MAX_ENTRIES = 1_000;
+
+    private final Map<K, Flight<V>> flights = new ConcurrentHashMap<>();
+    private final long windowNanos;
+
+    /**
+     * @param windowMillis How long a completed result is reused; 0 only
+     *                     shares results between overlapping calls
+     */
+    SingleFlight(long windowMillis) {
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMillis);
+    }
+
+    private static final class Flight<V> {
+        private final CompletableFuture<V> result = new CompletableFuture<>();
+        private volatile long expiresAtNanos;
+
+        boolean isExpired(long now) {
+            return result.isDone() && expiresAtNanos - now <= 0;
+        }
+    }
+
+    /**
+     * Returns the result for the key, running the loader only if no call for
+     * an equal key is in flight or was completed within the window.
+     *
+     * @param key The normalized lookup key
+     * @param loader Computes the result on a miss
+     * @return The shared result
+     */
+    V get(K key, Supplier<V> loader) {
+        while (true) {
+            Flight<V> flight = flights.get(key);
+            if (flight != null) {
+                if (!flight.isExpired(System.nanoTime())) {
+                    return await(flight);
+                }
+                flights.remove(key, flight);
+            }
+
+            Flight<V> own = new Flight<>();
+            if (flights.putIfAbsent(key, own) == null) {
+                return load(key, own, loader);
+            }
+            // Lost the race to another caller; join its flight
+        }
+    }
+
+    /**
+     * Forgets all results, so that calls after a write never see data read
+     * before it. Loads still running complete for their current callers but
+     * are not reused.
+     */
+    void invalidate() {
+        flights.clear();
+    }
+
+    private V load(K key, Flight<V> own, Supplier<V> loader) {
+        V value;
+        try {
+            value = loader.get();
+        } catch (RuntimeException | Error e) {
+            flights.remove(key, own);
+            own.result.completeExceptionally(e);
+            throw e;
+        }
+
+        own.expiresAtNanos = System.nanoTime() + windowNanos;
+        own.result.complete(value);
+        if (windowNanos <= 0) {
+            flights.remove(key, own);
+        } else if (flights.size() > MAX_ENTRIES) {
+            long now = System.nanoTime();
+            flights.values().removeIf(flight -> flight.isExpired(now));
+        }
+        return value;
+    }
+
+    private static <V> V await(Flight<V> flight) {
+        try {
+            return flight.result.join();
+        } catch (CompletionException e) {
+            // Rethrow the leader's failure as is, like a direct call would
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package com.eventmgmt.repository;
+
+import com.eventmgmt.dao.EventDAO;
+import com.eventmgmt.model.dto.EventSummary;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+
+/**
+ * In-process index of upcoming events ordered by event date, so top-N
+ * upcoming lookups are served from memory instead of the database.
+ * 
+ * Reads are lock-free. Writes come from {@link EventRepository} after a
+ * successful save or delete and are serialized on the index. Events that have
+ * started are skipped by reads and removed by {@link #expire()}, which
+ * together with {@link #reload()} runs on a timer. Until the first load
+ * completes, callers fall back to the database.
+ */
+public final class UpcomingEventIndex {
+
+    private static final Logger LOGGER = Logger.getLogger(UpcomingEventIndex.class.getName());
+
+    private static final Comparator<EventSummary> BY_DATE = Comparator
+            .comparing(EventSummary::getEventDate)
+            .thenComparing(EventSummary::getId);
+
+    /** Declared after BY_DATE, which the constructor uses. */
+    private static final UpcomingEventIndex instance =
+            new UpcomingEventIndex(() -> new EventDAO().findAllUpcomingSummaries());
+
+    /** Queries all upcoming events for a reload. */
+    private final Supplier<List<EventSummary>> loader;
+
+    /** Ordered entries; replaced as a whole by reload. */
+    private volatile NavigableSet<EventSummary> upcoming = new ConcurrentSkipListSet<>(BY_DATE);
+    private volatile boolean loaded;
+
+    /** Entry of each indexed event, guarded by this. */
+    private Map<UUID, EventSummary> byId = new HashMap<>();
+
+    /** Writes made while a reload is querying the database, guarded by this. */
+    private List<Object> writesDuringReload;
+
+    /**
+     * @param loader Queries all upcoming events for a reload
+     */
+    UpcomingEventIndex(Supplier<List<EventSummary>> loader) {
+        this.loader = loader;
+    }
+
+    /**
+     * @return The shared index
+     */
+    public static UpcomingEventIndex getInstance() {
+        return instance;
+    }
+
+    /**
+     * @return true once the index has been loaded from the database
+     */
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Returns the next upcoming events.
+     * 
+     * @param limit The maximum number of events to return
+     * @return Up to limit events that have not started, soonest first
+     */
+    public List<EventSummary> findUpcoming(int limit) {
+        if (limit <= 0) {
+            return Collections.emptyList();
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<EventSummary> result = new ArrayList<>(Math.min(limit, 64));
+        for (EventSummary event : upcoming) {
+            if (result.size() >= limit) {
+                break;
+            }
+            if (event.getEventDate().isAfter(now)) {
+                result.add(event);
+            }
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    /**
+     * Adds or updates an event. Events in the past are removed instead.
+     * 
+     * @param event The saved event
+     */
+    public synchronized void put(EventSummary event) {
+        if (writesDuringReload != null) {
+            writesDuringReload.add(event);
+        }
+        apply(event, upcoming, byId);
+    }
+
+    /**
+     * Removes an event.
+     * 
+     * @param id The ID of the deleted event
+     */
+    public synchronized void remove(UUID id) {
+        if (writesDuringReload != null) {
+            writesDuringReload.add(id);
+        }
+        apply(id, upcoming, byId);
+    }
+
+    /**
+     * Removes events that have started.
+     */
+    public synchronized void expire() {
+        LocalDateTime now = LocalDateTime.now();
+        Iterator<EventSummary> it = upcoming.iterator();
+        while (it.hasNext()) {
+            EventSummary event = it.next();
+            if (event.getEventDate().isAfter(now)) {
+                break;
+            }
+            it.remove();
+            byId.remove(event.getId());
+        }
+    }
+
+    /**
+     * Replaces the contents with the upcoming events in the database. Writes
+     * made while the query runs are replayed on top of its result, so they
+     * are not lost to a snapshot taken before they committed.
+     */
+    public void reload() {
+        synchronized (this) {
+            writesDuringReload = new ArrayList<>();
+        }
+        List<EventSummary> events;
+        try {
+            events = loader.get();
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                writesDuringReload = null;
+            }
+            throw e;
+        }
+
+        NavigableSet<EventSummary> freshUpcoming = new ConcurrentSkipListSet<>(BY_DATE);
+        Map<UUID, EventSummary> freshById = new HashMap<>(events.size() * 2);
+        for (EventSummary event : events) {
+            apply(event, freshUpcoming, freshById);
+        }
+        synchronized (this) {
+            for (Object write : writesDuringReload) {
+                apply(write, freshUpcoming, freshById);
+            }
+            writesDuringReload = null;
+            upcoming = freshUpcoming;
+            byId = freshById;
+            loaded = true;
+        }
+        LOGGER.fine(() -> "Loaded " + freshById.size() + " upcoming events");
+    }
+
+    /**
+     * Applies a put (an EventSummary) or a remove (a UUID) to the given
+     * entries.
+     */
+    private static void apply(Object write, NavigableSet<EventSummary> upcoming, Map<UUID, EventSummary> byId) {
+        if (write instanceof UUID) {
+            EventSummary previous = byId.remove(write);
+            if (previous != null) {
+                upcoming.remove(previous);
+            }
+            return;
+        }
+        EventSummary event = (EventSummary) write;
+        EventSummary previous = event.getEventDate().isAfter(LocalDateTime.now())
+                ? byId.put(event.getId(), event)
+                : byId.remove(event.getId());
+        if (previous != null) {
+            upcoming.remove(previous);
+        }
+        if (byId.get(event.getId()) == event) {
+            upcoming.add(event);
+        }
+    }
+}
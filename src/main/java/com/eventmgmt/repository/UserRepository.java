@@ -3,24 +3,35 @@ package com.eventmgmt.repository;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
+import com.eventmgmt.dao.KeysetPage;
 import com.eventmgmt.dao.UserDAO;
 import com.eventmgmt.model.Event;
 import com.eventmgmt.model.User;
 import com.eventmgmt.model.UserRole;
+import com.eventmgmt.util.IdUtil;
+import com.eventmgmt.util.PasswordHasher;
 import com.eventmgmt.util.PasswordUtil;
 
 /**
  * Repository class for User entities.
  * Acts as a facade over the DAO layer, providing higher-level business
  * operations with security features like password encryption.
+ * Password hashing runs on the bounded {@link PasswordHasher} pool, so the
+ * methods that hash may throw {@link PasswordHasher.BusyException}.
  */
 public class UserRepository {
 
+    private static final Logger LOGGER = Logger.getLogger(UserRepository.class.getName());
+
     private final UserDAO userDAO;
+    private final PasswordHasher passwordHasher;
 
     public UserRepository() {
         this.userDAO = new UserDAO();
+        this.passwordHasher = PasswordHasher.getInstance();
     }
 
     /**
@@ -39,7 +50,7 @@ public class UserRepository {
      * @return An Optional containing the user if found
      */
     public Optional<User> findById(String id) {
-        return userDAO.findById(id);
+        return IdUtil.parse(id).flatMap(userDAO::findById);
     }
 
     /**
@@ -52,6 +63,29 @@ public class UserRepository {
         return userDAO.findByEmail(email);
     }
 
+    /**
+     * Finds the user a refresh token was issued to, as currently stored on
+     * the primary database, unless the user revoked their tokens since.
+     * 
+     * @param id The ID of the user
+     * @param issuedAt The issue time of the token in epoch milliseconds
+     * @return An Optional containing the user if the token may still be used
+     */
+    public Optional<User> findTokenHolder(String id, long issuedAt) {
+        return IdUtil.parse(id).flatMap(userDAO::findCurrentById)
+                .filter(user -> user.getTokensRevokedAt() == null || issuedAt >= user.getTokensRevokedAt());
+    }
+
+    /**
+     * Revokes every token issued to a user so far, on all instances: their
+     * refresh tokens are refused at once and their access tokens run out.
+     * 
+     * @param id The ID of the user
+     */
+    public void revokeTokens(String id) {
+        IdUtil.parse(id).ifPresent(uuid -> userDAO.revokeTokens(uuid, System.currentTimeMillis()));
+    }
+
     /**
      * Saves a user.
      * 
@@ -69,7 +103,7 @@ public class UserRepository {
      * @return true if the user was found and deleted, false otherwise
      */
     public boolean deleteById(String id) {
-        return userDAO.deleteById(id);
+        return IdUtil.parse(id).map(userDAO::deleteById).orElse(false);
     }
 
     /**
@@ -94,13 +128,40 @@ public class UserRepository {
 
     /**
      * Authenticates a user with secure password verification.
+     * A stored hash in an outdated format is upgraded on success.
      * 
      * @param email The user's email
      * @param plainPassword The user's plain text password
      * @return An Optional containing the user if authentication succeeds
      */
     public Optional<User> authenticate(String email, String plainPassword) {
-        return userDAO.verifyCredentials(email, plainPassword);
+        Optional<User> found = userDAO.findByEmail(email);
+        if (found.isEmpty()) {
+            // Take as long as a wrong password, so logins do not reveal which emails are registered
+            passwordHasher.verifyDummy(plainPassword);
+            return Optional.empty();
+        }
+        return found
+                .filter(user -> passwordHasher.verify(plainPassword, user.getPassword()))
+                .map(user -> upgradePasswordHash(user, plainPassword));
+    }
+
+    /**
+     * Replaces a stored hash in an outdated format or with a lower cost than
+     * current hashes, now that the password is known. Failing to upgrade does
+     * not fail the login; the next login tries again.
+     */
+    private User upgradePasswordHash(User user, String plainPassword) {
+        if (!PasswordUtil.needsRehash(user.getPassword())) {
+            return user;
+        }
+        try {
+            user.setPassword(passwordHasher.hash(plainPassword));
+            return userDAO.save(user);
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.WARNING, "Failed to upgrade password hash of user " + user.getId(), e);
+            return user;
+        }
     }
 
     /**
@@ -119,7 +180,7 @@ public class UserRepository {
         User user = new User();
         user.setEmail(email);
         // Encrypt the password before saving
-        user.setPassword(PasswordUtil.encryptPassword(plainPassword));
+        user.setPassword(passwordHasher.hash(plainPassword));
         user.setRole(role);
         
         return userDAO.save(user);
@@ -127,6 +188,7 @@ public class UserRepository {
 
     /**
      * Updates a user's details with secure password handling.
+     * A new password revokes the user's tokens.
      * 
      * @param userId The ID of the user to update
      * @param email The new email (or null to keep current)
@@ -135,7 +197,7 @@ public class UserRepository {
      * @return An Optional containing the updated user if found
      */
     public Optional<User> updateUser(String userId, String email, String plainPassword, UserRole role) {
-        return userDAO.findById(userId).map(user -> {
+        return findById(userId).map(user -> {
             if (email != null && !email.equals(user.getEmail())) {
                 if (userDAO.isEmailInUse(email)) {
                     return null; // Email already in use
@@ -145,19 +207,25 @@ public class UserRepository {
             
             if (plainPassword != null) {
                 // Encrypt the new password
-                user.setPassword(PasswordUtil.encryptPassword(plainPassword));
+                user.setPassword(passwordHasher.hash(plainPassword));
             }
             
             if (role != null) {
                 user.setRole(role);
             }
             
-            return userDAO.save(user);
+            User saved = userDAO.save(user);
+            if (plainPassword != null) {
+                userDAO.revokeTokens(saved.getId(), System.currentTimeMillis());
+            }
+            return saved;
         });
     }
 
     /**
      * Change a user's password with secure verification and encryption.
+     * Every token of the user is revoked, including the caller's; callers
+     * that keep the session issue new tokens afterwards.
      * 
      * @param userId The ID of the user
      * @param currentPassword The current password for verification
@@ -165,15 +233,16 @@ public class UserRepository {
      * @return true if the password was changed successfully, false otherwise
      */
     public boolean changePassword(String userId, String currentPassword, String newPassword) {
-        return userDAO.findById(userId).map(user -> {
+        return findById(userId).map(user -> {
             // Verify the current password
-            if (!PasswordUtil.verifyPassword(currentPassword, user.getPassword())) {
+            if (!passwordHasher.verify(currentPassword, user.getPassword())) {
                 return false;
             }
             
-            // Encrypt and set the new password
-            user.setPassword(PasswordUtil.encryptPassword(newPassword));
+            // Encrypt and set the new password, and end the sessions started with the old one
+            user.setPassword(passwordHasher.hash(newPassword));
             userDAO.save(user);
+            userDAO.revokeTokens(user.getId(), System.currentTimeMillis());
             return true;
         }).orElse(false);
     }
@@ -186,7 +255,7 @@ public class UserRepository {
      * @return The updated user if found, or empty if not found
      */
     public Optional<User> addCreatedEvent(String userId, Event event) {
-        return userDAO.findById(userId).map(user -> {
+        return findById(userId).map(user -> {
             user.addCreatedEvent(event);
             return userDAO.save(user);
         });
@@ -211,4 +280,15 @@ public class UserRepository {
     public List<User> getPaginatedUsers(int offset, int limit) {
         return userDAO.findAll(offset, limit);
     }
+
+    /**
+     * Gets a page of users using keyset pagination.
+     * 
+     * @param after The cursor of the previous page, or null for the first page
+     * @param limit The maximum number of results to return
+     * @return The page of users and the cursor of the next page
+     */
+    public KeysetPage<User> getUsersAfter(String after, int limit) {
+        return userDAO.findPage(after, limit);
+    }
 }
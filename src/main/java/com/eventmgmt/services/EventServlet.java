@@ -1,22 +1,19 @@
 package com.eventmgmt.services;
 
-import com.eventmgmt.model.Event;
-import com.eventmgmt.model.EventType;
+import com.eventmgmt.controller.AsyncHttpServlet;
+import com.eventmgmt.model.dto.EventSummary;
 import com.eventmgmt.repository.EventRepository;
-import javax.servlet.RequestDispatcher;
 import javax.servlet.ServletException;
 import javax.servlet.annotation.WebServlet;
-import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
 import java.io.IOException;
 import java.time.LocalDate;
-import java.util.Arrays;
 import java.util.List;
 
-@WebServlet("/")
-public class EventServlet extends HttpServlet {
+@WebServlet(urlPatterns = "/", asyncSupported = true)
+public class EventServlet extends AsyncHttpServlet {
 
     private EventRepository eventRepository;
 
@@ -30,13 +27,13 @@ public class EventServlet extends HttpServlet {
     protected void doGet(HttpServletRequest request, HttpServletResponse response)
             throws ServletException, IOException {
 
-        List<Event> upcomingEvents = eventRepository.findUpcomingEvents(4);
+        List<EventSummary> upcomingEvents = eventRepository.findUpcomingSummaries(4);
 
-        List<String> eventTypes = Arrays.stream(EventType.values())
+        List<String> eventTypes = eventRepository.getEventTypesByPopularity().stream()
                 .map(Enum::name)
                 .toList();
 
-        List<String> popularLocations = getPopularLocations();
+        List<String> popularLocations = eventRepository.getPopularLocations();
 
         LocalDate currentDate = LocalDate.now();
         LocalDate nextMonthDate = currentDate.plusMonths(1);
@@ -47,17 +44,6 @@ public class EventServlet extends HttpServlet {
         request.setAttribute("currentDate", currentDate);
         request.setAttribute("nextMonthDate", nextMonthDate);
 
-        RequestDispatcher dispatcher = request.getRequestDispatcher("/index.jsp");
-        dispatcher.forward(request, response);
-    }
-
-    private List<String> getPopularLocations() {
-        return List.of(
-                "Blue Mountain",
-                "City Central",
-                "Green Forest",
-                "Historic District",
-                "Lakeside Park",
-                "Ocean View");
+        forward(request, response, "/index.jsp");
     }
 }
\ No newline at end of file
@@ -0,0 +1,167 @@
+package com.eventmgmt.util;
+
+import com.eventmgmt.model.BaseEntity;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Utility class for HTTP conditional GET: computing validators and answering
+ * If-None-Match / If-Modified-Since with 304 Not Modified.
+ */
+public class ConditionalGet {
+
+    private static final String DIGEST_ALGORITHM = "SHA-256";
+    /** 128 bits of the digest are plenty to tell queries apart. */
+    private static final int DIGEST_BYTES = 16;
+
+    /**
+     * Computes the strong entity tag of an entity from its ID and last update
+     * time.
+     * 
+     * @param entity The entity
+     * @return The quoted entity tag
+     */
+    public static String entityTag(BaseEntity entity) {
+        return "\"" + entity.getId() + "-" + version(entity.getUpdatedAt()) + "\"";
+    }
+
+    /**
+     * Computes the strong entity tag of a collection response from a
+     * fingerprint of the underlying table and the request's parameters.
+     * 
+     * @param fingerprint Changes whenever a row is added, updated or deleted
+     * @param request     The request, whose parameters select the subset
+     * @return The quoted entity tag
+     */
+    public static String collectionTag(String fingerprint, HttpServletRequest request) {
+        return "\"c-" + fingerprint + "-" + parametersDigest(request) + "\"";
+    }
+
+    /**
+     * Digests the request parameters, decoded and sorted by name, so that
+     * equivalent query strings share a tag while different ones, unlike with
+     * a 32-bit hash, practically never do.
+     * 
+     * @param request The request
+     * @return The URL-safe Base64 digest
+     */
+    static String parametersDigest(HttpServletRequest request) {
+        // Re-encoded, so that no name or value can pass for a separator
+        StringBuilder normalized = new StringBuilder();
+        for (Map.Entry<String, String[]> parameter : new TreeMap<>(request.getParameterMap()).entrySet()) {
+            String name = URLEncoder.encode(parameter.getKey(), StandardCharsets.UTF_8);
+            for (String value : parameter.getValue()) {
+                normalized.append(name).append('=').append(URLEncoder.encode(value, StandardCharsets.UTF_8))
+                        .append('&');
+            }
+        }
+        byte[] digest;
+        try {
+            digest = MessageDigest.getInstance(DIGEST_ALGORITHM)
+                    .digest(normalized.toString().getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(DIGEST_ALGORITHM + " is not available", e);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(digest, DIGEST_BYTES));
+    }
+
+    /**
+     * Sets the validators on the response and checks whether the client's
+     * copy is still current. If-None-Match takes precedence over
+     * If-Modified-Since, as required by RFC 7232.
+     * 
+     * @param request      The request
+     * @param response     The response
+     * @param entityTag    The current entity tag
+     * @param lastModified The last modification time, or null if unknown
+     * @return true if a 304 Not Modified was sent and the body must be skipped
+     */
+    public static boolean checkNotModified(HttpServletRequest request, HttpServletResponse response,
+            String entityTag, LocalDateTime lastModified) {
+        response.setHeader("ETag", entityTag);
+        // Clients may store the response but must revalidate before reusing it
+        response.setHeader("Cache-Control", "no-cache");
+        long lastModifiedMillis = lastModified != null ? toEpochMillis(lastModified) : -1;
+        if (lastModifiedMillis >= 0) {
+            response.setDateHeader("Last-Modified", lastModifiedMillis);
+        }
+
+        String ifNoneMatch = request.getHeader("If-None-Match");
+        boolean notModified;
+        if (ifNoneMatch != null) {
+            notModified = matches(ifNoneMatch, entityTag);
+        } else {
+            long ifModifiedSince = parseDateHeader(request, "If-Modified-Since");
+            // HTTP dates have second precision
+            notModified = ifModifiedSince >= 0 && lastModifiedMillis >= 0
+                    && TimeUnit.MILLISECONDS.toSeconds(lastModifiedMillis)
+                            <= TimeUnit.MILLISECONDS.toSeconds(ifModifiedSince);
+        }
+        if (notModified) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+        }
+        return notModified;
+    }
+
+    /**
+     * Weak comparison of an If-None-Match header value against a tag, which
+     * is what RFC 7232 prescribes for If-None-Match.
+     */
+    private static boolean matches(String ifNoneMatch, String entityTag) {
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*")) {
+                return true;
+            }
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals(entityTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static long parseDateHeader(HttpServletRequest request, String name) {
+        try {
+            return request.getDateHeader(name);
+        } catch (IllegalArgumentException e) {
+            // Unparseable dates are ignored
+            return -1;
+        }
+    }
+
+    /**
+     * Encodes a timestamp at full precision, so that two updates within the
+     * same millisecond still get different tags. Seconds and nanoseconds are
+     * separated, since their hexadecimal forms vary in length.
+     * 
+     * @param dateTime The timestamp, or null
+     * @return A compact hexadecimal version string
+     */
+    public static String version(LocalDateTime dateTime) {
+        if (dateTime == null) {
+            return "0";
+        }
+        Instant instant = dateTime.atZone(ZoneId.systemDefault()).toInstant();
+        return Long.toHexString(instant.getEpochSecond()) + "." + Integer.toHexString(instant.getNano());
+    }
+
+    private static long toEpochMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,31 @@
+package com.eventmgmt.util;
+
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Utility class for parsing entity IDs received as strings, for example from
+ * request paths or the session.
+ */
+public class IdUtil {
+
+    private static final int UUID_LENGTH = 36;
+
+    /**
+     * Parses an entity ID.
+     * 
+     * @param id The ID in canonical UUID form
+     * @return An Optional containing the ID, or empty if it is null or malformed
+     */
+    public static Optional<UUID> parse(String id) {
+        // UUID.fromString accepts shortened groups such as "1-2-3-4-5"
+        if (id == null || id.length() != UUID_LENGTH) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(UUID.fromString(id));
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.eventmgmt.util;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.io.Reader;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Utility class for reading JSON request bodies and writing JSON response
+ * bodies directly from and to the servlet streams, so that a payload is never
+ * held in memory as a single string.
+ */
+public class JsonResponses {
+
+    private static final String PRETTY_PARAMETER = "pretty";
+    private static final String INDENT = "  ";
+
+    /**
+     * Serializes a value onto the response writer. The output is compact
+     * unless the request asks for {@code ?pretty=true}.
+     *
+     * @param gson The Gson instance holding the type adapters
+     * @param request The request, consulted for the pretty parameter
+     * @param response The response to write to
+     * @param value The value to serialize, may be null
+     * @throws IOException if writing to the response fails
+     */
+    public static void write(Gson gson, HttpServletRequest request, HttpServletResponse response, Object value)
+            throws IOException {
+        JsonWriter json = gson.newJsonWriter(response.getWriter());
+        if (Boolean.parseBoolean(request.getParameter(PRETTY_PARAMETER))) {
+            json.setIndent(INDENT);
+        }
+
+        if (value == null) {
+            json.nullValue();
+        } else {
+            gson.toJson(value, value.getClass(), json);
+        }
+        // Flush but do not close: the container owns the response writer
+        json.flush();
+    }
+
+    /**
+     * Deserializes the request body as it is read.
+     *
+     * @param gson The Gson instance holding the type adapters
+     * @param request The request whose body to read
+     * @param type The class to deserialize into
+     * @return The deserialized value
+     * @throws IOException if reading the request fails
+     * @throws IllegalArgumentException if the body is empty or not valid JSON
+     */
+    public static <T> T read(Gson gson, HttpServletRequest request, Class<T> type) throws IOException {
+        T value;
+        try (Reader reader = request.getReader()) {
+            value = gson.fromJson(reader, type);
+        } catch (JsonParseException e) {
+            throw new IllegalArgumentException("Invalid JSON: " + e.getMessage(), e);
+        }
+
+        if (value == null) {
+            throw new IllegalArgumentException("Request body is empty");
+        }
+        return value;
+    }
+}
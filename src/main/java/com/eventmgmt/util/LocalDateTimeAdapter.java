@@ -1,21 +1,43 @@
 package com.eventmgmt.util;
 
-import com.google.gson.*;
-import java.lang.reflect.Type;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import java.io.IOException;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 
-public class LocalDateTimeAdapter implements JsonSerializer<LocalDateTime>, JsonDeserializer<LocalDateTime> {
+/**
+ * Streaming Gson adapter for ISO local date-times such as
+ * {@code 2025-06-01T18:30:00}. Reads and writes the token directly, without
+ * an intermediate JsonPrimitive.
+ */
+public class LocalDateTimeAdapter extends TypeAdapter<LocalDateTime> {
     private static final DateTimeFormatter formatter = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
 
     @Override
-    public JsonElement serialize(LocalDateTime src, Type typeOfSrc, JsonSerializationContext context) {
-        return new JsonPrimitive(formatter.format(src));
+    public void write(JsonWriter out, LocalDateTime value) throws IOException {
+        if (value == null) {
+            out.nullValue();
+            return;
+        }
+        out.value(formatter.format(value));
     }
 
     @Override
-    public LocalDateTime deserialize(JsonElement json, Type typeOfT, JsonDeserializationContext context)
-            throws JsonParseException {
-        return LocalDateTime.parse(json.getAsString(), formatter);
+    public LocalDateTime read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        String value = in.nextString();
+        try {
+            return LocalDateTime.parse(value, formatter);
+        } catch (DateTimeParseException e) {
+            throw new JsonSyntaxException("Invalid date-time '" + value + "' at " + in.getPath(), e);
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,132 @@
+package com.eventmgmt.util;
+
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs password hashing on a dedicated pool with one thread per core, so that
+ * a burst of logins is limited to the CPU it can actually use and cannot
+ * occupy every thread serving other requests.
+ *
+ * The queue in front of the pool is bounded. When it is full, callers get a
+ * {@link BusyException} at once instead of waiting behind work that would
+ * outlast their request.
+ */
+public final class PasswordHasher {
+
+    /** Hashing jobs that may wait for a thread, per thread. */
+    private static final int QUEUE_DEPTH_PER_THREAD = 4;
+
+    private static final PasswordHasher instance = new PasswordHasher();
+
+    private final ThreadPoolExecutor executor;
+
+    /**
+     * Hash of a random password at the current cost, created on first use.
+     * Verifying against it costs as much as verifying a real password.
+     */
+    private static final class DummyHash {
+        static final String VALUE = PasswordUtil.encryptPassword(UUID.randomUUID().toString());
+    }
+
+    /**
+     * Thrown when the hashing queue is full. The request should be rejected
+     * as temporarily unavailable.
+     */
+    public static class BusyException extends RuntimeException {
+        BusyException() {
+            super("Too many password operations in progress, please retry later");
+        }
+    }
+
+    private PasswordHasher() {
+        int threads = Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(threads * QUEUE_DEPTH_PER_THREAD), runnable -> {
+                    Thread thread = new Thread(runnable, "eventmgmt-password-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * @return The shared instance
+     */
+    public static PasswordHasher getInstance() {
+        return instance;
+    }
+
+    /**
+     * Hashes a password for storage, see {@link PasswordUtil#encryptPassword(String)}.
+     *
+     * @param password The plain text password
+     * @return The encoded hash
+     * @throws BusyException If the hashing queue is full
+     */
+    public String hash(String password) {
+        return run(() -> PasswordUtil.encryptPassword(password));
+    }
+
+    /**
+     * Verifies a password against a stored hash, see
+     * {@link PasswordUtil#verifyPassword(String, String)}.
+     *
+     * @param password The plain text password to verify
+     * @param storedValue The stored hash string
+     * @return true if the password matches, false otherwise
+     * @throws BusyException If the hashing queue is full
+     */
+    public boolean verify(String password, String storedValue) {
+        return run(() -> PasswordUtil.verifyPassword(password, storedValue));
+    }
+
+    /**
+     * Verifies a password against a hash no password matches, taking as long
+     * as {@link #verify(String, String)}. Used when there is nothing to verify
+     * against, so that response times do not reveal it.
+     *
+     * @param password The plain text password
+     * @throws BusyException If the hashing queue is full
+     */
+    public void verifyDummy(String password) {
+        run(() -> PasswordUtil.verifyPassword(password, DummyHash.VALUE));
+    }
+
+    /**
+     * @return The number of hashing jobs waiting for a thread
+     */
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    private <T> T run(Callable<T> job) {
+        Future<T> future;
+        try {
+            future = executor.submit(job);
+        } catch (RejectedExecutionException e) {
+            throw new BusyException();
+        }
+
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while hashing password", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Error hashing password", cause);
+        }
+    }
+}
@@ -1,93 +1,179 @@
 package com.eventmgmt.util;
 
+import java.security.GeneralSecurityException;
 import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
 import java.security.SecureRandom;
 import java.util.Base64;
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
 
 /**
  * Utility class for password encryption and verification.
- * Uses SHA-256 hashing with a random salt for secure password storage.
+ * Uses PBKDF2 with HMAC-SHA256 and a random salt for secure password storage.
+ *
+ * Hashes are stored in a versioned format, {@code pbkdf2-sha256$iterations$salt$hash},
+ * so that the cost can be raised later. Hashes in the older single-round
+ * SHA-256 format ({@code salt:hash}) still verify, and {@link #needsRehash(String)}
+ * tells callers to replace them, and hashes with fewer iterations, on the
+ * next successful login.
+ *
+ * Hashing is deliberately slow; request threads should go through
+ * {@link PasswordHasher} rather than calling this class directly.
  */
 public class PasswordUtil {
-    
-    private static final String ALGORITHM = "SHA-256";
+
+    private static final String SCHEME = "pbkdf2-sha256";
+    private static final String KEY_ALGORITHM = "PBKDF2WithHmacSHA256";
+    private static final String LEGACY_ALGORITHM = "SHA-256";
+    private static final String SEPARATOR = "$";
     private static final int SALT_LENGTH = 16; // 128 bits
-    
+    private static final int HASH_LENGTH = 32; // 256 bits
+
+    private static final String ITERATIONS_VARIABLE = "EVENTMGMT_PASSWORD_ITERATIONS";
+    private static final String ITERATIONS_PROPERTY = "eventmgmt.passwordIterations";
+
+    /** The OWASP recommendation for PBKDF2-HMAC-SHA256. */
+    private static final int DEFAULT_ITERATIONS = 310_000;
+
+    /** Lower settings are refused rather than silently weakening new hashes. */
+    private static final int MIN_ITERATIONS = 100_000;
+
+    /**
+     * Iterations for new hashes, configured in the {@code EVENTMGMT_PASSWORD_ITERATIONS}
+     * environment variable (or the {@code eventmgmt.passwordIterations} system
+     * property). Size it with {@code PasswordHashBenchmark}: one core verifies
+     * about 1 / (seconds per hash) logins per second.
+     */
+    public static final int ITERATIONS = configuredIterations();
+
+    /** Seeding a SecureRandom is expensive, so each thread keeps its own. */
+    private static final ThreadLocal<SecureRandom> SALT_SOURCE = ThreadLocal.withInitial(SecureRandom::new);
+
     /**
      * Generates a random salt.
-     * 
+     *
      * @return A random salt as a byte array
      */
     public static byte[] generateSalt() {
-        SecureRandom random = new SecureRandom();
         byte[] salt = new byte[SALT_LENGTH];
-        random.nextBytes(salt);
+        SALT_SOURCE.get().nextBytes(salt);
         return salt;
     }
-    
+
     /**
-     * Hashes a password with a given salt using SHA-256.
-     * 
+     * Hashes a password with a given salt using PBKDF2.
+     *
      * @param password The plain text password
      * @param salt The salt for additional security
+     * @param iterations The number of PBKDF2 iterations
      * @return The hashed password
      */
-    public static byte[] hashPassword(String password, byte[] salt) {
+    public static byte[] hashPassword(String password, byte[] salt, int iterations) {
+        PBEKeySpec spec = new PBEKeySpec(password.toCharArray(), salt, iterations, HASH_LENGTH * 8);
         try {
-            MessageDigest md = MessageDigest.getInstance(ALGORITHM);
-            md.update(salt);
-            return md.digest(password.getBytes());
-        } catch (NoSuchAlgorithmException e) {
+            return SecretKeyFactory.getInstance(KEY_ALGORITHM).generateSecret(spec).getEncoded();
+        } catch (GeneralSecurityException e) {
             throw new RuntimeException("Error hashing password", e);
+        } finally {
+            spec.clearPassword();
         }
     }
-    
+
     /**
-     * Encrypts a password and returns the salt and hash as a combined string.
-     * Format: Base64(salt):Base64(hash)
-     * 
+     * Encrypts a password and returns the scheme, cost, salt and hash as a combined string.
+     * Format: pbkdf2-sha256$iterations$Base64(salt)$Base64(hash)
+     *
      * @param password The plain text password
      * @return A string containing the encoded salt and hash
      */
     public static String encryptPassword(String password) {
         byte[] salt = generateSalt();
-        byte[] hash = hashPassword(password, salt);
-        
-        String saltStr = Base64.getEncoder().encodeToString(salt);
-        String hashStr = Base64.getEncoder().encodeToString(hash);
-        
-        return saltStr + ":" + hashStr;
+        byte[] hash = hashPassword(password, salt, ITERATIONS);
+
+        return SCHEME + SEPARATOR + ITERATIONS
+                + SEPARATOR + Base64.getEncoder().encodeToString(salt)
+                + SEPARATOR + Base64.getEncoder().encodeToString(hash);
     }
-    
+
     /**
-     * Verifies a password against a stored hash.
-     * 
+     * Verifies a password against a stored hash, in the current or the legacy format.
+     *
      * @param password The plain text password to verify
-     * @param storedValue The stored salt:hash string
+     * @param storedValue The stored hash string
      * @return true if the password matches, false otherwise
      */
     public static boolean verifyPassword(String password, String storedValue) {
         try {
+            if (storedValue.startsWith(SCHEME + SEPARATOR)) {
+                String[] parts = storedValue.split("\\$");
+                if (parts.length != 4) {
+                    return false;
+                }
+                int iterations = Integer.parseInt(parts[1]);
+                byte[] salt = Base64.getDecoder().decode(parts[2]);
+                byte[] storedHash = Base64.getDecoder().decode(parts[3]);
+
+                // Time-constant comparison to prevent timing attacks
+                return MessageDigest.isEqual(storedHash, hashPassword(password, salt, iterations));
+            }
+
             String[] parts = storedValue.split(":");
             if (parts.length != 2) {
                 return false;
             }
-            
             byte[] salt = Base64.getDecoder().decode(parts[0]);
             byte[] storedHash = Base64.getDecoder().decode(parts[1]);
-            
-            byte[] computedHash = hashPassword(password, salt);
-            
-            // Time-constant comparison to prevent timing attacks
-            int diff = storedHash.length ^ computedHash.length;
-            for (int i = 0; i < storedHash.length && i < computedHash.length; i++) {
-                diff |= storedHash[i] ^ computedHash[i];
-            }
-            
-            return diff == 0;
+
+            return MessageDigest.isEqual(storedHash, hashLegacy(password, salt));
         } catch (Exception e) {
             return false;
         }
     }
+
+    /**
+     * Checks whether a stored hash was created with an older scheme or a
+     * lower cost than new hashes, and should be replaced once the password
+     * is known.
+     *
+     * @param storedValue The stored hash string
+     * @return true if the hash should be recomputed
+     */
+    public static boolean needsRehash(String storedValue) {
+        if (!storedValue.startsWith(SCHEME + SEPARATOR)) {
+            return true;
+        }
+        String[] parts = storedValue.split("\\$");
+        try {
+            return parts.length != 4 || Integer.parseInt(parts[1]) < ITERATIONS;
+        } catch (NumberFormatException e) {
+            return true;
+        }
+    }
+
+    private static int configuredIterations() {
+        String config = System.getProperty(ITERATIONS_PROPERTY, System.getenv(ITERATIONS_VARIABLE));
+        if (config == null) {
+            return DEFAULT_ITERATIONS;
+        }
+        int iterations;
+        try {
+            iterations = Integer.parseInt(config.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalStateException("Invalid " + ITERATIONS_VARIABLE + ": " + config, e);
+        }
+        if (iterations < MIN_ITERATIONS) {
+            throw new IllegalStateException(ITERATIONS_VARIABLE + " must be at least " + MIN_ITERATIONS);
+        }
+        return iterations;
+    }
+
+    /**
+     * Hashes a password the way versions before PBKDF2 did: a single round of
+     * SHA-256 over the salt and the password.
+     */
+    private static byte[] hashLegacy(String password, byte[] salt) throws GeneralSecurityException {
+        MessageDigest md = MessageDigest.getInstance(LEGACY_ALGORITHM);
+        md.update(salt);
+        return md.digest(password.getBytes());
+    }
 }
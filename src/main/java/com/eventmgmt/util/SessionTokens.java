@@ -0,0 +1,352 @@
+package com.eventmgmt.util;
+
+import com.eventmgmt.model.UserRole;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletRequest;
+
+/**
+ * Stateless authentication tokens, signed with HMAC-SHA256, so that any
+ * application instance can authenticate any request without sticky or
+ * replicated sessions.
+ *
+ * A token reads {@code kid.type.userId.role.issuedAt.expiry.signature}: the
+ * id of the signing key, {@code a} for access or {@code r} for refresh
+ * tokens, the user, their role, the issue and expiry times in epoch
+ * milliseconds, and the Base64url signature of everything before it.
+ *
+ * Access tokens authenticate requests and are checked without a database
+ * round trip, so they are short-lived: role changes, deleted users and
+ * logouts on other instances take effect when they expire. Refresh tokens
+ * only obtain new access tokens, and the caller checks the user against the
+ * database before issuing one; see {@code UserController}.
+ *
+ * Keys are configured in the {@code EVENTMGMT_TOKEN_KEYS} environment
+ * variable (or the {@code eventmgmt.tokenKeys} system property) as
+ * {@code kid:base64Secret} pairs separated by commas. The first key signs new
+ * tokens and all of them verify, so a key is rotated by putting its
+ * replacement first and dropping it once its tokens have expired. Every
+ * instance must share the keys, so {@link #getInstance()} fails without them.
+ *
+ * Revoked tokens are remembered until they expire. This revocation set is
+ * kept per instance.
+ */
+public final class SessionTokens {
+
+    /** Name of the cookie that carries the access token for browser clients. */
+    public static final String COOKIE_NAME = "auth_token";
+
+    /** Name of the cookie that carries the refresh token for browser clients. */
+    public static final String REFRESH_COOKIE_NAME = "refresh_token";
+
+    public static final long ACCESS_TTL_SECONDS = TimeUnit.MINUTES.toSeconds(15);
+    public static final long REFRESH_TTL_SECONDS = TimeUnit.HOURS.toSeconds(8);
+
+    private static final String KEYS_VARIABLE = "EVENTMGMT_TOKEN_KEYS";
+    private static final String KEYS_PROPERTY = "eventmgmt.tokenKeys";
+    private static final String MAC_ALGORITHM = "HmacSHA256";
+    private static final String BEARER_PREFIX = "Bearer ";
+    private static final String REFRESH_HEADER = "X-Refresh-Token";
+    private static final char ACCESS = 'a';
+    private static final char REFRESH = 'r';
+    /** Dots in a token, one after each field but the signature. */
+    private static final int SEPARATORS = 6;
+    private static final String CLAIMS_ATTRIBUTE = SessionTokens.class.getName() + ".claims";
+    private static final int SIGNATURE_LENGTH = 32;
+
+    /** Expired revocations are purged once the set grows past this size. */
+    private static final int MAX_REVOKED = 10_000;
+
+    /** The shared instance, created on first use from the configured keys. */
+    private static final class Shared {
+        static final SessionTokens INSTANCE =
+                new SessionTokens(System.getProperty(KEYS_PROPERTY, System.getenv(KEYS_VARIABLE)));
+    }
+
+    /** The signing key first. */
+    private final List<SigningKey> keys;
+    private final Map<String, Long> revoked = new ConcurrentHashMap<>();
+
+    /**
+     * The authenticated user of a valid token.
+     *
+     * @param userId The ID of the user
+     * @param role The role of the user when the token was issued
+     * @param issuedAt The issue time in epoch milliseconds
+     * @param expiresAt The expiry in epoch milliseconds
+     */
+    public record Claims(String userId, UserRole role, long issuedAt, long expiresAt) {
+
+        public boolean isAdmin() {
+            return role == UserRole.ADMIN;
+        }
+    }
+
+    private static final class SigningKey {
+        private final String id;
+        private final ThreadLocal<Mac> mac;
+
+        SigningKey(String id, byte[] secret) {
+            this.id = id;
+            SecretKeySpec keySpec = new SecretKeySpec(secret, MAC_ALGORITHM);
+            // Mac instances are not thread-safe, and creating one is costlier than reusing it
+            this.mac = ThreadLocal.withInitial(() -> {
+                try {
+                    Mac instance = Mac.getInstance(MAC_ALGORITHM);
+                    instance.init(keySpec);
+                    return instance;
+                } catch (GeneralSecurityException e) {
+                    throw new IllegalStateException("Cannot initialize token signing", e);
+                }
+            });
+        }
+
+        byte[] sign(byte[] data, int length) {
+            Mac instance = mac.get();
+            instance.update(data, 0, length);
+            return instance.doFinal();
+        }
+    }
+
+    /**
+     * @param keysConfig The {@code kid:base64Secret} pairs, separated by commas
+     * @throws IllegalStateException If the configuration is missing or invalid
+     */
+    SessionTokens(String keysConfig) {
+        this.keys = parseKeys(keysConfig);
+    }
+
+    /**
+     * @return The shared instance
+     */
+    public static SessionTokens getInstance() {
+        return Shared.INSTANCE;
+    }
+
+    /**
+     * Issues an access token, which authenticates requests.
+     *
+     * @param userId The ID of the user
+     * @param role The role of the user
+     * @return The signed token
+     */
+    public String issue(String userId, UserRole role) {
+        return issue(ACCESS, userId, role, ACCESS_TTL_SECONDS);
+    }
+
+    /**
+     * Issues a refresh token, which only obtains new access tokens.
+     *
+     * @param userId The ID of the user
+     * @param role The role of the user
+     * @return The signed token
+     */
+    public String issueRefresh(String userId, UserRole role) {
+        return issue(REFRESH, userId, role, REFRESH_TTL_SECONDS);
+    }
+
+    /**
+     * Verifies an access token.
+     *
+     * @param token The token, may be null
+     * @return The claims if the token is a well formed access token, correctly
+     *         signed by a known key, not expired and not revoked; null otherwise
+     */
+    public Claims verify(String token) {
+        return verify(token, ACCESS);
+    }
+
+    /**
+     * Verifies a refresh token. The caller still has to check that the user
+     * exists and has not revoked their tokens since.
+     *
+     * @param token The token, may be null
+     * @return The claims if the token is a well formed refresh token,
+     *         correctly signed by a known key, not expired and not revoked on
+     *         this instance; null otherwise
+     */
+    public Claims verifyRefresh(String token) {
+        return verify(token, REFRESH);
+    }
+
+    /**
+     * Revokes a token until it expires. Does nothing if the token is not valid.
+     *
+     * @param token The token to revoke
+     */
+    public void revoke(String token) {
+        Claims claims = verify(token);
+        if (claims == null) {
+            claims = verifyRefresh(token);
+        }
+        if (claims == null) {
+            return;
+        }
+        revoked.put(token.substring(token.lastIndexOf('.') + 1), claims.expiresAt());
+        if (revoked.size() > MAX_REVOKED) {
+            long now = System.currentTimeMillis();
+            revoked.values().removeIf(expiresAt -> expiresAt <= now);
+        }
+    }
+
+    /**
+     * Authenticates a request by the access token in its Authorization
+     * header or cookie. The result is kept on the request, so the token is
+     * verified once however often this is called.
+     *
+     * @param request The request
+     * @return The claims of a valid token, or null if the request is not authenticated
+     */
+    public static Claims authenticate(HttpServletRequest request) {
+        Object cached = request.getAttribute(CLAIMS_ATTRIBUTE);
+        if (cached != null) {
+            return cached instanceof Claims claims ? claims : null;
+        }
+        Claims claims = Shared.INSTANCE.verify(tokenOf(request));
+        // Cache failures too, as any non-null marker
+        request.setAttribute(CLAIMS_ATTRIBUTE, claims != null ? claims : Boolean.FALSE);
+        return claims;
+    }
+
+    /**
+     * Extracts the access token from the Authorization header or the cookie.
+     *
+     * @param request The request
+     * @return The token, or null if the request carries none
+     */
+    public static String tokenOf(HttpServletRequest request) {
+        String authorization = request.getHeader("Authorization");
+        if (authorization != null && authorization.startsWith(BEARER_PREFIX)) {
+            return authorization.substring(BEARER_PREFIX.length()).trim();
+        }
+        return cookieValue(request, COOKIE_NAME);
+    }
+
+    /**
+     * Extracts the refresh token from the X-Refresh-Token header or the cookie.
+     *
+     * @param request The request
+     * @return The token, or null if the request carries none
+     */
+    public static String refreshTokenOf(HttpServletRequest request) {
+        String header = request.getHeader(REFRESH_HEADER);
+        return header != null ? header.trim() : cookieValue(request, REFRESH_COOKIE_NAME);
+    }
+
+    private static String cookieValue(HttpServletRequest request, String name) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies != null) {
+            for (Cookie cookie : cookies) {
+                if (name.equals(cookie.getName())) {
+                    return cookie.getValue();
+                }
+            }
+        }
+        return null;
+    }
+
+    private String issue(char type, String userId, UserRole role, long ttlSeconds) {
+        SigningKey key = keys.get(0);
+        long issuedAt = System.currentTimeMillis();
+        long expiresAt = issuedAt + TimeUnit.SECONDS.toMillis(ttlSeconds);
+        String payload = key.id + "." + type + "." + userId + "." + role.name() + "." + issuedAt + "." + expiresAt;
+        byte[] bytes = payload.getBytes(StandardCharsets.US_ASCII);
+        return payload + "." + Base64.getUrlEncoder().withoutPadding().encodeToString(key.sign(bytes, bytes.length));
+    }
+
+    private Claims verify(String token, char type) {
+        if (token == null) {
+            return null;
+        }
+        int[] dots = new int[SEPARATORS];
+        int from = 0;
+        for (int i = 0; i < SEPARATORS; i++) {
+            dots[i] = token.indexOf('.', from);
+            if (dots[i] < 0) {
+                return null;
+            }
+            from = dots[i] + 1;
+        }
+        if (token.indexOf('.', from) >= 0 || dots[1] != dots[0] + 2 || token.charAt(dots[0] + 1) != type) {
+            return null;
+        }
+
+        SigningKey key = findKey(token, dots[0]);
+        if (key == null) {
+            return null;
+        }
+        byte[] signature;
+        try {
+            signature = Base64.getUrlDecoder().decode(token.substring(dots[5] + 1));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        if (signature.length != SIGNATURE_LENGTH) {
+            return null;
+        }
+        byte[] bytes = token.getBytes(StandardCharsets.US_ASCII);
+        if (!MessageDigest.isEqual(signature, key.sign(bytes, dots[5]))) {
+            return null;
+        }
+
+        // The payload is ours from here on, so it is well formed
+        long expiresAt = Long.parseLong(token, dots[4] + 1, dots[5], 10);
+        if (expiresAt <= System.currentTimeMillis()) {
+            return null;
+        }
+        if (!revoked.isEmpty() && revoked.containsKey(token.substring(dots[5] + 1))) {
+            return null;
+        }
+        return new Claims(token.substring(dots[1] + 1, dots[2]),
+                UserRole.valueOf(token.substring(dots[2] + 1, dots[3])),
+                Long.parseLong(token, dots[3] + 1, dots[4], 10), expiresAt);
+    }
+
+    private SigningKey findKey(String token, int keyEnd) {
+        for (SigningKey key : keys) {
+            if (key.id.length() == keyEnd && token.startsWith(key.id)) {
+                return key;
+            }
+        }
+        return null;
+    }
+
+    private static List<SigningKey> parseKeys(String config) {
+        if (config == null || config.isBlank()) {
+            throw new IllegalStateException(KEYS_VARIABLE + " is not set; every instance needs the same token keys,"
+                    + " e.g. main:$(openssl rand -base64 32)");
+        }
+        List<SigningKey> keys = new ArrayList<>();
+        for (String entry : config.split(",")) {
+            String trimmed = entry.trim();
+            int colon = trimmed.indexOf(':');
+            if (colon <= 0 || !trimmed.substring(0, colon).matches("[A-Za-z0-9_-]+")) {
+                throw new IllegalStateException("Invalid token key entry in " + KEYS_VARIABLE
+                        + ", expected kid:base64Secret");
+            }
+            byte[] secret;
+            try {
+                secret = Base64.getDecoder().decode(trimmed.substring(colon + 1));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalStateException("Invalid Base64 secret in " + KEYS_VARIABLE, e);
+            }
+            if (secret.length < SIGNATURE_LENGTH) {
+                throw new IllegalStateException("Token keys in " + KEYS_VARIABLE + " must be at least "
+                        + SIGNATURE_LENGTH + " bytes");
+            }
+            keys.add(new SigningKey(trimmed.substring(0, colon), secret));
+        }
+        return List.copyOf(keys);
+    }
+}
@@ -0,0 +1,44 @@
+package com.eventmgmt.util.json;
+
+import com.eventmgmt.model.ConfirmedRSVP;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import java.io.IOException;
+
+/**
+ * Streaming adapter for {@link ConfirmedRSVP}. The event is written as
+ * {@code eventId}.
+ */
+public class ConfirmedRSVPAdapter extends EntityAdapter<ConfirmedRSVP> {
+
+    @Override
+    protected ConfirmedRSVP newEntity() {
+        return new ConfirmedRSVP();
+    }
+
+    @Override
+    protected void writeFields(JsonWriter out, ConfirmedRSVP rsvp) throws IOException {
+        out.name("eventId");
+        JsonValues.writeUuid(out, rsvp.getEvent() != null ? rsvp.getEvent().getId() : null);
+        out.name("email").value(rsvp.getEmail());
+        out.name("qrCode").value(rsvp.getQrCode());
+    }
+
+    @Override
+    protected boolean readField(JsonReader in, String name, ConfirmedRSVP rsvp) throws IOException {
+        switch (name) {
+            case "eventId":
+            case "event":
+                rsvp.setEvent(JsonValues.eventReference(JsonValues.readReferenceId(in)));
+                return true;
+            case "email":
+                rsvp.setEmail(JsonValues.readString(in));
+                return true;
+            case "qrCode":
+                rsvp.setQrCode(JsonValues.readString(in));
+                return true;
+            default:
+                return false;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.eventmgmt.util.json;
+
+import com.eventmgmt.model.BaseEntity;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import java.io.IOException;
+
+/**
+ * Base class for the streaming entity adapters. Writes the id first and the
+ * audit timestamps last around the entity's own fields. On read, the id and
+ * timestamps are ignored because the server assigns them, and so are unknown
+ * members.
+ *
+ * @param <T> The entity type
+ */
+abstract class EntityAdapter<T extends BaseEntity> extends TypeAdapter<T> {
+
+    @Override
+    public void write(JsonWriter out, T entity) throws IOException {
+        if (entity == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        out.name("id");
+        JsonValues.writeUuid(out, entity.getId());
+        writeFields(out, entity);
+        out.name("createdAt");
+        JsonValues.writeDateTime(out, entity.getCreatedAt());
+        out.name("updatedAt");
+        JsonValues.writeDateTime(out, entity.getUpdatedAt());
+        out.endObject();
+    }
+
+    @Override
+    public T read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        T entity = newEntity();
+        in.beginObject();
+        while (in.hasNext()) {
+            if (!readField(in, in.nextName(), entity)) {
+                in.skipValue();
+            }
+        }
+        in.endObject();
+        return entity;
+    }
+
+    /**
+     * Creates the empty entity that {@link #read(JsonReader)} fills in.
+     */
+    protected abstract T newEntity();
+
+    /**
+     * Writes the members of the entity other than id and timestamps.
+     */
+    protected abstract void writeFields(JsonWriter out, T entity) throws IOException;
+
+    /**
+     * Reads the value of one member into the entity.
+     *
+     * @return false if the member is not settable, in which case its value is skipped
+     */
+    protected abstract boolean readField(JsonReader in, String name, T entity) throws IOException;
+}
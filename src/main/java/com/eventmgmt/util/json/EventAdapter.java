@@ -0,0 +1,68 @@
+package com.eventmgmt.util.json;
+
+import com.eventmgmt.model.Event;
+import com.eventmgmt.model.EventType;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import java.io.IOException;
+
+/**
+ * Streaming adapter for {@link Event}. The creator is written as
+ * {@code creatorId} so that a lazy creator is never loaded, and is read back
+ * as an unloaded reference to the user.
+ */
+public class EventAdapter extends EntityAdapter<Event> {
+
+    @Override
+    protected Event newEntity() {
+        return new Event();
+    }
+
+    @Override
+    protected void writeFields(JsonWriter out, Event event) throws IOException {
+        out.name("name").value(event.getName());
+        out.name("description").value(event.getDescription());
+        out.name("eventDate");
+        JsonValues.writeDateTime(out, event.getEventDate());
+        out.name("location").value(event.getLocation());
+        out.name("type");
+        JsonValues.writeEnum(out, event.getType());
+        out.name("capacity").value(event.getCapacity());
+        out.name("imgUrl").value(event.getImgUrl());
+        out.name("creatorId");
+        JsonValues.writeUuid(out, event.getCreatorId());
+    }
+
+    @Override
+    protected boolean readField(JsonReader in, String name, Event event) throws IOException {
+        switch (name) {
+            case "name":
+                event.setName(JsonValues.readString(in));
+                return true;
+            case "description":
+                event.setDescription(JsonValues.readString(in));
+                return true;
+            case "eventDate":
+                event.setEventDate(JsonValues.readDateTime(in));
+                return true;
+            case "location":
+                event.setLocation(JsonValues.readString(in));
+                return true;
+            case "type":
+                event.setType(JsonValues.readEnum(in, EventType.class));
+                return true;
+            case "capacity":
+                event.setCapacity(JsonValues.readInteger(in));
+                return true;
+            case "imgUrl":
+                event.setImgUrl(JsonValues.readString(in));
+                return true;
+            case "creatorId":
+            case "creator":
+                event.setCreator(JsonValues.userReference(JsonValues.readReferenceId(in)));
+                return true;
+            default:
+                return false;
+        }
+    }
+}
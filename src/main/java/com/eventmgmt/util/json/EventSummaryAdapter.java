@@ -0,0 +1,78 @@
+package com.eventmgmt.util.json;
+
+import com.eventmgmt.model.EventType;
+import com.eventmgmt.model.dto.EventSummary;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Streaming adapter for {@link EventSummary}.
+ */
+public class EventSummaryAdapter extends TypeAdapter<EventSummary> {
+
+    @Override
+    public void write(JsonWriter out, EventSummary summary) throws IOException {
+        if (summary == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        out.name("id");
+        JsonValues.writeUuid(out, summary.getId());
+        out.name("name").value(summary.getName());
+        out.name("eventDate");
+        JsonValues.writeDateTime(out, summary.getEventDate());
+        out.name("location").value(summary.getLocation());
+        out.name("type");
+        JsonValues.writeEnum(out, summary.getType());
+        out.name("imgUrl").value(summary.getImgUrl());
+        out.endObject();
+    }
+
+    @Override
+    public EventSummary read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        UUID id = null;
+        String name = null;
+        LocalDateTime eventDate = null;
+        String location = null;
+        EventType type = null;
+        String imgUrl = null;
+
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "id":
+                    id = JsonValues.readUuid(in);
+                    break;
+                case "name":
+                    name = JsonValues.readString(in);
+                    break;
+                case "eventDate":
+                    eventDate = JsonValues.readDateTime(in);
+                    break;
+                case "location":
+                    location = JsonValues.readString(in);
+                    break;
+                case "type":
+                    type = JsonValues.readEnum(in, EventType.class);
+                    break;
+                case "imgUrl":
+                    imgUrl = JsonValues.readString(in);
+                    break;
+                default:
+                    in.skipValue();
+            }
+        }
+        in.endObject();
+        return new EventSummary(id, name, eventDate, location, type, imgUrl);
+    }
+}
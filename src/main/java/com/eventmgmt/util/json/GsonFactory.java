@@ -0,0 +1,39 @@
+package com.eventmgmt.util.json;
+
+import com.eventmgmt.model.ConfirmedRSVP;
+import com.eventmgmt.model.Event;
+import com.eventmgmt.model.PendingRSVP;
+import com.eventmgmt.model.User;
+import com.eventmgmt.model.dto.EventSummary;
+import com.eventmgmt.util.LocalDateTimeAdapter;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import java.time.LocalDateTime;
+
+/**
+ * Builds the Gson instance shared by the controllers. Model classes and
+ * timestamps are handled by hand-written streaming adapters rather than
+ * reflection.
+ */
+public class GsonFactory {
+
+    private static final Gson gson = newBuilder().create();
+
+    /**
+     * Returns the shared, thread-safe Gson instance.
+     */
+    public static Gson getGson() {
+        return gson;
+    }
+
+    private static GsonBuilder newBuilder() {
+        // Hierarchy adapters so that Hibernate proxy subclasses use them too
+        return new GsonBuilder()
+                .registerTypeAdapter(LocalDateTime.class, new LocalDateTimeAdapter())
+                .registerTypeAdapter(EventSummary.class, new EventSummaryAdapter())
+                .registerTypeHierarchyAdapter(Event.class, new EventAdapter())
+                .registerTypeHierarchyAdapter(User.class, new UserAdapter())
+                .registerTypeHierarchyAdapter(PendingRSVP.class, new PendingRSVPAdapter())
+                .registerTypeHierarchyAdapter(ConfirmedRSVP.class, new ConfirmedRSVPAdapter());
+    }
+}
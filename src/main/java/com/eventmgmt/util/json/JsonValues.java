@@ -0,0 +1,131 @@
+package com.eventmgmt.util.json;
+
+import com.eventmgmt.model.Event;
+import com.eventmgmt.model.User;
+import com.eventmgmt.util.LocalDateTimeAdapter;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Null-aware helpers for reading and writing single values in the model
+ * type adapters.
+ */
+final class JsonValues {
+
+    private static final LocalDateTimeAdapter DATE_TIME = new LocalDateTimeAdapter();
+
+    private JsonValues() {
+    }
+
+    static void writeUuid(JsonWriter out, UUID value) throws IOException {
+        out.value(value != null ? value.toString() : null);
+    }
+
+    static void writeEnum(JsonWriter out, Enum<?> value) throws IOException {
+        out.value(value != null ? value.name() : null);
+    }
+
+    static void writeDateTime(JsonWriter out, LocalDateTime value) throws IOException {
+        DATE_TIME.write(out, value);
+    }
+
+    static String readString(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        return in.nextString();
+    }
+
+    static Integer readInteger(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        try {
+            return in.nextInt();
+        } catch (NumberFormatException e) {
+            throw new JsonSyntaxException("Expected an integer at " + in.getPath(), e);
+        }
+    }
+
+    static UUID readUuid(JsonReader in) throws IOException {
+        String value = readString(in);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return UUID.fromString(value);
+        } catch (IllegalArgumentException e) {
+            throw new JsonSyntaxException("Invalid id '" + value + "' at " + in.getPath(), e);
+        }
+    }
+
+    static <E extends Enum<E>> E readEnum(JsonReader in, Class<E> type) throws IOException {
+        String value = readString(in);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Enum.valueOf(type, value.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new JsonSyntaxException("Unknown " + type.getSimpleName() + " '" + value + "' at " + in.getPath());
+        }
+    }
+
+    static LocalDateTime readDateTime(JsonReader in) throws IOException {
+        return DATE_TIME.read(in);
+    }
+
+    /**
+     * Reads either a bare id or an object carrying an {@code id} member, so
+     * that both {@code "creatorId": "..."} and {@code "creator": {"id": "..."}}
+     * are understood.
+     */
+    static UUID readReferenceId(JsonReader in) throws IOException {
+        if (in.peek() != JsonToken.BEGIN_OBJECT) {
+            return readUuid(in);
+        }
+        UUID id = null;
+        in.beginObject();
+        while (in.hasNext()) {
+            if (in.nextName().equals("id")) {
+                id = readUuid(in);
+            } else {
+                in.skipValue();
+            }
+        }
+        in.endObject();
+        return id;
+    }
+
+    /**
+     * Creates an unloaded reference to a user, which is enough for Hibernate
+     * to write the foreign key.
+     */
+    static User userReference(UUID id) {
+        if (id == null) {
+            return null;
+        }
+        User user = new User();
+        user.setId(id);
+        return user;
+    }
+
+    /**
+     * Creates an unloaded reference to an event.
+     */
+    static Event eventReference(UUID id) {
+        if (id == null) {
+            return null;
+        }
+        Event event = new Event();
+        event.setId(id);
+        return event;
+    }
+}
@@ -0,0 +1,40 @@
+package com.eventmgmt.util.json;
+
+import com.eventmgmt.model.PendingRSVP;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import java.io.IOException;
+
+/**
+ * Streaming adapter for {@link PendingRSVP}. The event is written as
+ * {@code eventId}.
+ */
+public class PendingRSVPAdapter extends EntityAdapter<PendingRSVP> {
+
+    @Override
+    protected PendingRSVP newEntity() {
+        return new PendingRSVP();
+    }
+
+    @Override
+    protected void writeFields(JsonWriter out, PendingRSVP rsvp) throws IOException {
+        out.name("eventId");
+        JsonValues.writeUuid(out, rsvp.getEvent() != null ? rsvp.getEvent().getId() : null);
+        out.name("email").value(rsvp.getEmail());
+    }
+
+    @Override
+    protected boolean readField(JsonReader in, String name, PendingRSVP rsvp) throws IOException {
+        switch (name) {
+            case "eventId":
+            case "event":
+                rsvp.setEvent(JsonValues.eventReference(JsonValues.readReferenceId(in)));
+                return true;
+            case "email":
+                rsvp.setEmail(JsonValues.readString(in));
+                return true;
+            default:
+                return false;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.eventmgmt.util.json;
+
+import com.eventmgmt.model.User;
+import com.eventmgmt.model.UserRole;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import java.io.IOException;
+
+/**
+ * Streaming adapter for {@link User}. The password is accepted on input but
+ * never written, and the created events collection is left out so that it is
+ * not loaded.
+ */
+public class UserAdapter extends EntityAdapter<User> {
+
+    @Override
+    protected User newEntity() {
+        return new User();
+    }
+
+    @Override
+    protected void writeFields(JsonWriter out, User user) throws IOException {
+        out.name("email").value(user.getEmail());
+        out.name("role");
+        JsonValues.writeEnum(out, user.getRole());
+    }
+
+    @Override
+    protected boolean readField(JsonReader in, String name, User user) throws IOException {
+        switch (name) {
+            case "email":
+                user.setEmail(JsonValues.readString(in));
+                return true;
+            case "password":
+                user.setPassword(JsonValues.readString(in));
+                return true;
+            case "role":
+                user.setRole(JsonValues.readEnum(in, UserRole.class));
+                return true;
+            default:
+                return false;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+-- Schema as previously created by hibernate.hbm2ddl.auto=update. Databases
+-- that already have it are baselined at version 1 and skip this script.
+-- Constraint names are the ones Hibernate generated, so both kinds of
+-- database end up identical.
+
+CREATE TABLE users (
+    id         VARCHAR(36)  NOT NULL,
+    created_at TIMESTAMP    NOT NULL,
+    updated_at TIMESTAMP,
+    email      VARCHAR(255) NOT NULL,
+    password   VARCHAR(255) NOT NULL,
+    role       VARCHAR(255) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT UK_6dotkott2kjsp8vw4d0m25fb7 UNIQUE (email)
+);
+
+CREATE TABLE events (
+    id          VARCHAR(36)  NOT NULL,
+    created_at  TIMESTAMP    NOT NULL,
+    updated_at  TIMESTAMP,
+    capacity    INTEGER      NOT NULL,
+    description TEXT,
+    eventDate   TIMESTAMP    NOT NULL,
+    imgUrl      TEXT,
+    location    VARCHAR(255) NOT NULL,
+    name        VARCHAR(255) NOT NULL,
+    type        VARCHAR(255) NOT NULL,
+    creator_id  VARCHAR(36),
+    PRIMARY KEY (id),
+    CONSTRAINT FK7ljm71n1057envlomdxcni5hs FOREIGN KEY (creator_id) REFERENCES users (id)
+);
+
+CREATE TABLE pending_rsvps (
+    id         VARCHAR(36)  NOT NULL,
+    created_at TIMESTAMP    NOT NULL,
+    updated_at TIMESTAMP,
+    email      VARCHAR(255) NOT NULL,
+    event_id   VARCHAR(36)  NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT FKn5u6xn1ubn0kjq4i6lvuq10fw FOREIGN KEY (event_id) REFERENCES events (id)
+);
+
+CREATE TABLE confirmed_rsvps (
+    id         VARCHAR(36)  NOT NULL,
+    created_at TIMESTAMP    NOT NULL,
+    updated_at TIMESTAMP,
+    email      VARCHAR(255) NOT NULL,
+    qrCode     VARCHAR(255) NOT NULL,
+    event_id   VARCHAR(36)  NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT FKda8081dwpa2jx4kfse1a99cbo FOREIGN KEY (event_id) REFERENCES events (id)
+);
@@ -0,0 +1,35 @@
+-- Indexes for the finders in EventDAO, UserDAO and BaseDAO. The full-text
+-- index follows in V5__simple_search_index.sql.
+-- pg_trgm needs a role allowed to create extensions (superuser before PG 13).
+--
+-- CONCURRENTLY keeps the tables writable while the indexes build. It cannot
+-- run in a transaction, see V2__query_indexes.sql.conf. A build that fails
+-- leaves an INVALID index, which IF NOT EXISTS would then skip: drop it
+-- before running the migration again. QueryPlanTest checks that the finders
+-- use these indexes.
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- findByType, and searchEvents filtering on type ordered by date
+CREATE INDEX CONCURRENTLY IF NOT EXISTS events_type_event_date_idx ON events (type, eventDate);
+
+-- findUpcoming*, find*ByDateRange, and searchEvents without a type
+CREATE INDEX CONCURRENTLY IF NOT EXISTS events_event_date_idx ON events (eventDate);
+
+-- findByCreator and User.createdEvents
+CREATE INDEX CONCURRENTLY IF NOT EXISTS events_creator_id_idx ON events (creator_id);
+
+-- RSVP lookups by event and the foreign key checks on event delete
+CREATE INDEX CONCURRENTLY IF NOT EXISTS pending_rsvps_event_id_idx ON pending_rsvps (event_id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS confirmed_rsvps_event_id_idx ON confirmed_rsvps (event_id);
+
+-- Keyset pagination (findPage), ordered by (created_at, id)
+CREATE INDEX CONCURRENTLY IF NOT EXISTS events_created_at_id_idx ON events (created_at, id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS users_created_at_id_idx ON users (created_at, id);
+
+-- Substring search on location and email (LOWER(col) LIKE '%x%')
+CREATE INDEX CONCURRENTLY IF NOT EXISTS events_location_trgm_idx ON events
+    USING GIN (lower(location) gin_trgm_ops);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS users_email_trgm_idx ON users
+    USING GIN (lower(email) gin_trgm_ops);
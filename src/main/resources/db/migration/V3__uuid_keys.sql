@@ -0,0 +1,30 @@
+-- Store ids as native 16 byte uuid instead of VARCHAR(36). Existing ids are
+-- canonical UUID strings and convert in place; new ids are time-ordered
+-- UUIDv7 values from UUID7Generator. Foreign keys are dropped while the
+-- referenced columns change type, and the indexes are rebuilt by ALTER TYPE.
+
+ALTER TABLE events DROP CONSTRAINT FK7ljm71n1057envlomdxcni5hs;
+ALTER TABLE pending_rsvps DROP CONSTRAINT FKn5u6xn1ubn0kjq4i6lvuq10fw;
+ALTER TABLE confirmed_rsvps DROP CONSTRAINT FKda8081dwpa2jx4kfse1a99cbo;
+
+ALTER TABLE users
+    ALTER COLUMN id TYPE uuid USING id::uuid;
+
+ALTER TABLE events
+    ALTER COLUMN id TYPE uuid USING id::uuid,
+    ALTER COLUMN creator_id TYPE uuid USING creator_id::uuid;
+
+ALTER TABLE pending_rsvps
+    ALTER COLUMN id TYPE uuid USING id::uuid,
+    ALTER COLUMN event_id TYPE uuid USING event_id::uuid;
+
+ALTER TABLE confirmed_rsvps
+    ALTER COLUMN id TYPE uuid USING id::uuid,
+    ALTER COLUMN event_id TYPE uuid USING event_id::uuid;
+
+ALTER TABLE events ADD CONSTRAINT FK7ljm71n1057envlomdxcni5hs
+    FOREIGN KEY (creator_id) REFERENCES users (id);
+ALTER TABLE pending_rsvps ADD CONSTRAINT FKn5u6xn1ubn0kjq4i6lvuq10fw
+    FOREIGN KEY (event_id) REFERENCES events (id);
+ALTER TABLE confirmed_rsvps ADD CONSTRAINT FKda8081dwpa2jx4kfse1a99cbo
+    FOREIGN KEY (event_id) REFERENCES events (id);
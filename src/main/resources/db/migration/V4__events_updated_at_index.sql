@@ -0,0 +1,4 @@
+-- MAX(updated_at) fingerprints the events table for ETags on /api/events,
+-- see EventDAO.findLastUpdateAndCount. Built CONCURRENTLY, outside a
+-- transaction (V4__events_updated_at_index.sql.conf).
+CREATE INDEX CONCURRENTLY IF NOT EXISTS events_updated_at_idx ON events (updated_at);
@@ -0,0 +1,11 @@
+-- Full-text search over event name and description (fts_match / fts_rank).
+-- The expression must match SearchPostgreSQLDialect exactly. It uses the
+-- 'simple' configuration: search terms are word prefixes, and stemming them
+-- with 'english' broke prefix matches ('festiva:*' against the lexeme
+-- 'festiv') and dropped stopword-only input.
+--
+-- CONCURRENTLY keeps the events table writable while the index builds. It
+-- cannot run in a transaction, see V5__simple_search_index.sql.conf.
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS events_search_simple_idx ON events
+    USING GIN (to_tsvector('simple', coalesce(name, '') || ' ' || coalesce(description, '')));
@@ -0,0 +1,4 @@
+-- Refresh tokens issued before this time (epoch milliseconds) are
+-- refused, see UserRepository.findTokenHolder. Shared by all instances, so
+-- a logout or password change on one ends the user's sessions on all.
+ALTER TABLE users ADD COLUMN tokens_revoked_at BIGINT;
@@ -0,0 +1,100 @@
+package com.eventmgmt.benchmark;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.eventmgmt.dao.BaseDAO;
+import com.eventmgmt.model.Event;
+import com.eventmgmt.model.EventType;
+
+/**
+ * Time per inserted event when saving one event per transaction, as a loop
+ * over {@link BaseDAO#save} does, versus {@link BaseDAO#saveAll(java.util.Collection, int)}
+ * with JDBC batching, for several chunk sizes.
+ *
+ * Runs against the database configured in persistence.xml, which must be
+ * migrated. The inserted events are deleted after each invocation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BatchInsertBenchmark {
+
+    private static final int EVENTS = 1_000;
+
+    private static final String NAME = "batch-insert-benchmark";
+
+    @Param({ "50", "500" })
+    private int chunkSize;
+
+    private final BenchmarkEventDAO eventDAO = new BenchmarkEventDAO();
+
+    private List<Event> events;
+
+    /** Adds the cleanup query to the DAO under test. */
+    static class BenchmarkEventDAO extends BaseDAO<Event, UUID> {
+
+        void deleteBenchmarkEvents() {
+            executeWithoutResult("deleteBenchmarkEvents", em -> em
+                    .createQuery("DELETE FROM Event e WHERE e.name = :name")
+                    .setParameter("name", NAME)
+                    .executeUpdate());
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void createEvents() {
+        events = new ArrayList<>(EVENTS);
+        LocalDateTime eventDate = LocalDateTime.now().plusYears(1);
+        for (int i = 0; i < EVENTS; i++) {
+            Event event = new Event();
+            event.setName(NAME);
+            event.setDescription("Event " + i);
+            event.setEventDate(eventDate.plusMinutes(i));
+            event.setLocation("Benchmark Hall");
+            event.setType(EventType.CONFERENCE);
+            event.setCapacity(100);
+            events.add(event);
+        }
+    }
+
+    @TearDown(Level.Invocation)
+    public void deleteEvents() {
+        eventDAO.deleteBenchmarkEvents();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(EVENTS)
+    public void saveEach() {
+        for (Event event : events) {
+            eventDAO.save(event);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(EVENTS)
+    public List<Event> saveAll() {
+        return eventDAO.saveAll(events, chunkSize);
+    }
+}
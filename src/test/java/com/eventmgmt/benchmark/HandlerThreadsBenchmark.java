@@ -0,0 +1,100 @@
+package com.eventmgmt.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Load model of the request handlers: a burst of concurrent requests, each
+ * blocking on the database for a while, run either on a fixed pool of
+ * platform threads the size of Tomcat's default maxThreads, as before
+ * AsyncHttpServlet, or on a virtual thread per request, as now.
+ *
+ * Database time is a sleep made while holding one of a bounded number of
+ * connections, like the c3p0 pool; the rest of the handler blocks without a
+ * connection, like reading the request or writing to a slow client. While
+ * the burst fits into the thread pool both take the same time. Beyond it,
+ * platform threads queue the excess requests, while virtual threads keep
+ * overlapping their waits and are bounded by the connections only.
+ *
+ * Self-contained, no database or container needed.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class HandlerThreadsBenchmark {
+
+    private static final int PLATFORM_THREADS = 200;
+    private static final int CONNECTIONS = 40;
+    private static final int REQUESTS = 1_000;
+
+    @Param({ "platform", "virtual" })
+    private String threads;
+
+    @Param({ "2" })
+    private int databaseMillis;
+
+    @Param({ "0", "20" })
+    private int otherBlockingMillis;
+
+    private ExecutorService executor;
+    private final Semaphore connections = new Semaphore(CONNECTIONS);
+
+    @Setup
+    public void setUp() {
+        executor = threads.equals("virtual") ? Executors.newVirtualThreadPerTaskExecutor()
+                : Executors.newFixedThreadPool(PLATFORM_THREADS);
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(REQUESTS)
+    public void burst() {
+        List<CompletableFuture<Void>> requests = new ArrayList<>(REQUESTS);
+        for (int i = 0; i < REQUESTS; i++) {
+            requests.add(CompletableFuture.runAsync(this::handle, executor));
+        }
+        CompletableFuture.allOf(requests.toArray(new CompletableFuture<?>[0])).join();
+    }
+
+    private void handle() {
+        try {
+            connections.acquire();
+            try {
+                Thread.sleep(databaseMillis);
+            } finally {
+                connections.release();
+            }
+            if (otherBlockingMillis > 0) {
+                Thread.sleep(otherBlockingMillis);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
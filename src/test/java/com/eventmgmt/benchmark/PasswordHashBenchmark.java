@@ -0,0 +1,48 @@
+package com.eventmgmt.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.eventmgmt.util.PasswordUtil;
+
+/**
+ * Time of one password hash per PBKDF2 iteration count, on a single thread.
+ * A login costs one hash, so one core serves 1000 / (ms per hash) logins per
+ * second, and the hashing pool, with one thread per core, that many times
+ * the number of cores. Pick the highest count whose rate still covers the
+ * expected login peak, and set it in EVENTMGMT_PASSWORD_ITERATIONS.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PasswordHashBenchmark {
+
+    @Param({ "100000", "210000", "310000", "600000" })
+    private int iterations;
+
+    private byte[] salt;
+
+    @Setup
+    public void setUp() {
+        salt = PasswordUtil.generateSalt();
+    }
+
+    @Benchmark
+    public byte[] hash() {
+        return PasswordUtil.hashPassword("correct horse battery staple", salt, iterations);
+    }
+}
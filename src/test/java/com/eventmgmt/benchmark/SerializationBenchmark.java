@@ -0,0 +1,103 @@
+package com.eventmgmt.benchmark;
+
+import java.lang.reflect.Type;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.eventmgmt.model.Event;
+import com.eventmgmt.model.EventType;
+import com.eventmgmt.model.dto.EventSummary;
+import com.eventmgmt.util.LocalDateTimeAdapter;
+import com.eventmgmt.util.json.GsonFactory;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.reflect.TypeToken;
+
+/**
+ * Time to write and read one page of events with the streaming adapters of
+ * GsonFactory versus the reflective Gson the controllers used before. The
+ * reflective events carry no creator, so both sides write the same members.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SerializationBenchmark {
+
+    private static final Type EVENT_LIST = new TypeToken<List<Event>>() {
+    }.getType();
+    private static final Type SUMMARY_LIST = new TypeToken<List<EventSummary>>() {
+    }.getType();
+
+    @Param({ "adapters", "reflective" })
+    private String gsonKind;
+
+    @Param({ "20", "1000" })
+    private int pageSize;
+
+    private Gson gson;
+    private List<Event> events;
+    private List<EventSummary> summaries;
+    private String eventsJson;
+    private String summariesJson;
+
+    @Setup
+    public void setUp() {
+        gson = gsonKind.equals("adapters") ? GsonFactory.getGson()
+                : new GsonBuilder().registerTypeAdapter(LocalDateTime.class, new LocalDateTimeAdapter()).create();
+        events = new ArrayList<>();
+        summaries = new ArrayList<>();
+        for (int i = 0; i < pageSize; i++) {
+            Event event = new Event();
+            event.setId(UUID.randomUUID());
+            event.setName("Event " + i);
+            event.setDescription("A description of event " + i + " that is a sentence or two long, like most are.");
+            event.setEventDate(LocalDateTime.of(2026, 4, 10, 18, 30).plusHours(i));
+            event.setLocation("City " + i % 50);
+            event.setType(EventType.values()[i % EventType.values().length]);
+            event.setCapacity(100 + i);
+            event.setImgUrl("https://example.com/events/" + i + ".png");
+            events.add(event);
+            summaries.add(EventSummary.from(event));
+        }
+        eventsJson = gson.toJson(events, EVENT_LIST);
+        summariesJson = gson.toJson(summaries, SUMMARY_LIST);
+    }
+
+    @Benchmark
+    public String writeEvents() {
+        return gson.toJson(events, EVENT_LIST);
+    }
+
+    @Benchmark
+    public String writeSummaries() {
+        return gson.toJson(summaries, SUMMARY_LIST);
+    }
+
+    @Benchmark
+    public List<Event> readEvents() {
+        return gson.fromJson(eventsJson, EVENT_LIST);
+    }
+
+    @Benchmark
+    public List<EventSummary> readSummaries() {
+        return gson.fromJson(summariesJson, SUMMARY_LIST);
+    }
+}
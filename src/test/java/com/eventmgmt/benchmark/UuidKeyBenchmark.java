@@ -0,0 +1,146 @@
+package com.eventmgmt.benchmark;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.hibernate.Session;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.eventmgmt.dao.BaseDAO;
+import com.eventmgmt.model.Event;
+import com.github.f4b6a3.uuid.UuidCreator;
+
+/**
+ * Time per inserted row into a table keyed by the ids entities use now,
+ * time-ordered UUIDv7 in a native uuid column, versus the ids they used
+ * before, random UUIDv4 as VARCHAR(36), and random UUIDv4 as uuid. The size
+ * of the primary key index is printed after each trial.
+ *
+ * Random keys land on random pages of the primary key, so once the index
+ * outgrows the buffer cache every insert reads and dirties another page, and
+ * page splits leave the pages half full. Time-ordered keys append to the
+ * right edge. The effect grows with the table, so size prefilledRows to the
+ * tables in question.
+ *
+ * Runs against the configured database. The benchmark table is created and
+ * dropped by each trial.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UuidKeyBenchmark {
+
+    private static final int ROWS = 1_000;
+
+    private static final String TABLE = "uuid_key_benchmark";
+
+    @Param({ "uuid-v7", "uuid-v4", "varchar-v4" })
+    private String key;
+
+    @Param({ "1000000" })
+    private int prefilledRows;
+
+    private final JdbcDAO dao = new JdbcDAO();
+
+    /** Gives the benchmark the pooled JDBC connections of the DAO layer. */
+    static class JdbcDAO extends BaseDAO<Event, UUID> {
+
+        interface Work {
+            void execute(Connection connection) throws SQLException;
+        }
+
+        void run(String operation, Work work) {
+            executeWithoutResult(operation, em -> em.unwrap(Session.class).doWork(work::execute));
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void createTable() {
+        String type = key.startsWith("varchar") ? "VARCHAR(36)" : "uuid";
+        dao.run("createTable", connection -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("DROP TABLE IF EXISTS " + TABLE);
+                statement.execute("CREATE TABLE " + TABLE + " (id " + type + " PRIMARY KEY, payload TEXT NOT NULL)");
+            }
+        });
+        for (int done = 0; done < prefilledRows; done += ROWS) {
+            insertRows(Math.min(ROWS, prefilledRows - done));
+        }
+        dao.run("analyze", connection -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("ANALYZE " + TABLE);
+            }
+        });
+    }
+
+    @TearDown(Level.Trial)
+    public void dropTable() {
+        dao.run("dropTable", connection -> {
+            try (Statement statement = connection.createStatement()) {
+                try (ResultSet rows = statement.executeQuery("SELECT count(*),"
+                        + " pg_size_pretty(pg_relation_size('" + TABLE + "_pkey')),"
+                        + " pg_size_pretty(pg_relation_size('" + TABLE + "'))"
+                        + " FROM " + TABLE)) {
+                    rows.next();
+                    System.out.println();
+                    System.out.println(key + ": " + rows.getLong(1) + " rows, primary key "
+                            + rows.getString(2) + ", table " + rows.getString(3));
+                }
+                statement.execute("DROP TABLE " + TABLE);
+            }
+        });
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void insert() {
+        insertRows(ROWS);
+    }
+
+    /**
+     * Inserts rows in one JDBC batch and transaction, as saveAll does.
+     */
+    private void insertRows(int count) {
+        dao.run("insertRows", connection -> {
+            try (PreparedStatement insert = connection.prepareStatement(
+                    "INSERT INTO " + TABLE + " (id, payload) VALUES (?, ?)")) {
+                for (int i = 0; i < count; i++) {
+                    switch (key) {
+                        case "uuid-v7":
+                            insert.setObject(1, UuidCreator.getTimeOrderedEpoch());
+                            break;
+                        case "uuid-v4":
+                            insert.setObject(1, UUID.randomUUID());
+                            break;
+                        default:
+                            insert.setString(1, UUID.randomUUID().toString());
+                    }
+                    insert.setString(2, "payload " + i);
+                    insert.addBatch();
+                }
+                insert.executeBatch();
+            }
+        });
+    }
+}
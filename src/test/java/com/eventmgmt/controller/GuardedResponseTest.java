@@ -0,0 +1,149 @@
+package com.eventmgmt.controller;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import javax.servlet.http.HttpServletResponse;
+
+import org.junit.After;
+import org.junit.Test;
+
+public class GuardedResponseTest {
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    /** Names of the calls that reached the wrapped response. */
+    private final List<String> calls = Collections.synchronizedList(new ArrayList<>());
+
+    @After
+    public void shutDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void callsPassThroughUntilDetached() throws IOException {
+        StringWriter body = new StringWriter();
+        GuardedResponse response = new GuardedResponse(stub(body));
+        PrintWriter writer = response.getWriter();
+
+        response.setStatus(HttpServletResponse.SC_OK);
+        writer.print("before");
+        writer.flush();
+        assertTrue(response.detach());
+        // The writer was taken before the timeout and is still in the handler's hands
+        writer.print("after");
+        writer.flush();
+        response.setStatus(HttpServletResponse.SC_CREATED);
+        response.setHeader("ETag", "\"1\"");
+        response.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+        response.getOutputStream().write(1);
+
+        assertEquals("before", body.toString());
+        assertEquals(Collections.singletonList("setStatus"), callsOtherThan("getWriter"));
+    }
+
+    @Test
+    public void detachedResponseLooksCommitted() {
+        GuardedResponse response = new GuardedResponse(stub(new StringWriter()));
+
+        assertFalse(response.isCommitted());
+        response.detach();
+        assertTrue(response.isCommitted());
+    }
+
+    @Test
+    public void detachesOnlyOnce() {
+        GuardedResponse response = new GuardedResponse(stub(new StringWriter()));
+
+        assertTrue(response.detach());
+        assertFalse(response.detach());
+    }
+
+    @Test
+    public void detachWaitsForWriteInProgress() throws Exception {
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        StringWriter body = new StringWriter();
+        Writer slowSocket = new Writer() {
+            @Override
+            public void write(char[] buffer, int offset, int length) {
+                writing.countDown();
+                await(release);
+                body.write(buffer, offset, length);
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        GuardedResponse response = new GuardedResponse(stub(slowSocket));
+
+        Future<?> handler = executor.submit(() -> {
+            PrintWriter writer = response.getWriter();
+            writer.print("page");
+            writer.flush();
+            return null;
+        });
+        assertTrue(writing.await(5, TimeUnit.SECONDS));
+        Future<Boolean> timeout = executor.submit(response::detach);
+
+        Thread.sleep(100);
+        assertFalse("Detached during a write", timeout.isDone());
+        release.countDown();
+        assertTrue(timeout.get(5, TimeUnit.SECONDS));
+        handler.get(5, TimeUnit.SECONDS);
+        assertEquals("page", body.toString());
+    }
+
+    private List<String> callsOtherThan(String name) {
+        List<String> others = new ArrayList<>(calls);
+        others.removeIf(name::equals);
+        return others;
+    }
+
+    /**
+     * A response whose writer writes to the given writer and whose other
+     * methods only record that they were called.
+     */
+    private HttpServletResponse stub(Writer body) {
+        PrintWriter writer = new PrintWriter(body);
+        return (HttpServletResponse) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] { HttpServletResponse.class }, (proxy, method, args) -> {
+                    calls.add(method.getName());
+                    switch (method.getName()) {
+                        case "getWriter":
+                            return writer;
+                        case "isCommitted":
+                            return false;
+                        default:
+                            return null;
+                    }
+                });
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
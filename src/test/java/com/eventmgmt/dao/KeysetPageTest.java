@@ -0,0 +1,83 @@
+package com.eventmgmt.dao;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.eventmgmt.model.BaseEntity;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.UUID;
+
+import org.junit.Test;
+
+public class KeysetPageTest {
+
+    @Test
+    public void cursorRoundTripsThePosition() {
+        BaseEntity entity = entity(UUID.randomUUID());
+
+        Object[] position = KeysetPage.decodeCursor(KeysetPage.encodeCursor(entity));
+
+        assertArrayEquals(new Object[] { entity.getCreatedAt(), entity.getId() }, position);
+    }
+
+    @Test
+    public void cursorKeepsWholeMinutesAndNanoseconds() {
+        // LocalDateTime.toString drops zero seconds and keeps nanoseconds
+        for (LocalDateTime createdAt : new LocalDateTime[] {
+                LocalDateTime.of(2026, 1, 1, 10, 0),
+                LocalDateTime.of(2026, 1, 1, 10, 0, 5, 123_456_789) }) {
+            BaseEntity entity = entity(UUID.randomUUID());
+            Object[] position = KeysetPage.decodeCursor(encode(createdAt + "|" + entity.getId()));
+
+            assertEquals(createdAt, position[0]);
+            assertEquals(entity.getId(), position[1]);
+        }
+    }
+
+    @Test
+    public void cursorIsUrlSafe() {
+        String cursor = KeysetPage.encodeCursor(entity(UUID.randomUUID()));
+
+        assertTrue(cursor, cursor.matches("[A-Za-z0-9_-]+"));
+    }
+
+    @Test
+    public void malformedCursorsAreRejected() {
+        String id = UUID.randomUUID().toString();
+        String[] cursors = {
+                "",
+                "not base64!",
+                encode("2026-01-01T10:00:00"),
+                encode("2026-01-01T10:00:00|"),
+                encode("2026-01-01T10:00:00|not-a-uuid"),
+                encode("yesterday|" + id),
+                encode("|" + id),
+        };
+        for (String cursor : cursors) {
+            try {
+                KeysetPage.decodeCursor(cursor);
+                fail("Accepted " + cursor);
+            } catch (IllegalArgumentException e) {
+                assertEquals("Invalid cursor", e.getMessage());
+            }
+        }
+    }
+
+    private static BaseEntity entity(UUID id) {
+        return new BaseEntity() {
+            {
+                onCreate();
+                setId(id);
+            }
+        };
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
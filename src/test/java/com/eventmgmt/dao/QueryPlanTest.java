@@ -0,0 +1,208 @@
+package com.eventmgmt.dao;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import com.eventmgmt.dao.profiling.QueryProfile;
+import com.eventmgmt.model.EventType;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Checks that the DAO finders are served by the indexes in db/migration, so
+ * that a changed query or a dropped index shows up as a failure instead of a
+ * sequential scan in production.
+ *
+ * Each finder is called for real. Its SQL is captured from Hibernate through
+ * the statement inspector that feeds {@link QueryProfile}, then run through
+ * EXPLAIN with the same parameters against a seeded dataset. The planner
+ * keeps its default settings.
+ *
+ * Needs a throwaway PostgreSQL database migrated with mvn flyway:migrate. It
+ * is skipped unless one is given:
+ * mvn test -Deventmgmt.dbUrl=jdbc:postgresql://localhost:5432/event_mgmt_test
+ *     -Deventmgmt.dbUser=... -Deventmgmt.dbPassword=...
+ * The seeded rows are deleted afterwards.
+ */
+public class QueryPlanTest {
+
+    private static final String URL_PROPERTY = "eventmgmt.dbUrl";
+
+    private static final String EMAIL_PREFIX = "plancheck-";
+    private static final int USERS = 2_000;
+    private static final int EVENTS = 100_000;
+
+    private static Connection connection;
+    private static UUID someCreator;
+
+    private final EventDAO eventDAO = new EventDAO();
+    private final UserDAO userDAO = new UserDAO();
+
+    @BeforeClass
+    public static void seed() throws SQLException {
+        String url = System.getProperty(URL_PROPERTY);
+        assumeTrue(URL_PROPERTY + " is not set", url != null);
+        connection = DriverManager.getConnection(url, System.getProperty("eventmgmt.dbUser"),
+                System.getProperty("eventmgmt.dbPassword"));
+        deleteSeed();
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("INSERT INTO users (id, created_at, updated_at, email, password, role)"
+                    + " SELECT gen_random_uuid(), now() - g * interval '1 minute', now(),"
+                    + " '" + EMAIL_PREFIX + "' || g || '@example.com', 'x', 'USER'"
+                    + " FROM generate_series(1, " + USERS + ") g");
+            // Few conferences, few Parkside events and few "Conference" names,
+            // so that the finders below are selective, as in production
+            statement.execute("INSERT INTO events (id, created_at, updated_at, capacity, description, eventDate,"
+                    + " location, name, type, creator_id)"
+                    + " SELECT gen_random_uuid(), now() - g * interval '1 second', now(), 100, 'Seeded event',"
+                    + " now() + (g % 3650 - 1825) * interval '1 day',"
+                    + " CASE WHEN g % 1000 = 0 THEN 'Parkside' ELSE 'City ' || g % 500 END,"
+                    + " CASE WHEN g % 1000 = 0 THEN 'Conference ' || g ELSE 'Event ' || g END,"
+                    + " CASE WHEN g % 200 = 0 THEN 'CONFERENCE' ELSE 'OTHER' END,"
+                    + " creators.ids[1 + g % " + USERS + "]"
+                    + " FROM generate_series(1, " + EVENTS + ") g,"
+                    + " (SELECT array_agg(id) AS ids FROM users WHERE email LIKE '" + EMAIL_PREFIX + "%') creators");
+            statement.execute("ANALYZE users");
+            statement.execute("ANALYZE events");
+            try (ResultSet rows = statement.executeQuery(
+                    "SELECT id FROM users WHERE email = '" + EMAIL_PREFIX + "1@example.com'")) {
+                rows.next();
+                someCreator = rows.getObject(1, UUID.class);
+            }
+        }
+    }
+
+    @AfterClass
+    public static void cleanUp() throws SQLException {
+        if (connection != null) {
+            deleteSeed();
+            connection.close();
+        }
+    }
+
+    @Test
+    public void findByTypeUsesTypeAndDateIndex() throws SQLException {
+        assertUsesIndex("events_type_event_date_idx", () -> eventDAO.findByType(EventType.CONFERENCE),
+                "CONFERENCE");
+    }
+
+    @Test
+    public void findUpcomingUsesDateIndex() throws SQLException {
+        assertUsesIndex("events_event_date_idx", () -> eventDAO.findUpcomingEvents(10), 10);
+    }
+
+    @Test
+    public void findByDateRangeUsesDateIndex() throws SQLException {
+        LocalDateTime start = LocalDateTime.now().plusDays(30);
+        LocalDateTime end = start.plusDays(7);
+        assertUsesIndex("events_event_date_idx", () -> eventDAO.findByDateRange(start, end),
+                Timestamp.valueOf(start), Timestamp.valueOf(end));
+    }
+
+    @Test
+    public void findByCreatorUsesCreatorIndex() throws SQLException {
+        assertUsesIndex("events_creator_id_idx", () -> eventDAO.findByCreator(someCreator), someCreator);
+    }
+
+    @Test
+    public void deepKeysetPagesSeekTheCreatedAtIndex() throws SQLException {
+        assertKeysetPageUsesIndex("events", "events_created_at_id_idx", eventDAO);
+        assertKeysetPageUsesIndex("users", "users_created_at_id_idx", userDAO);
+    }
+
+    @Test
+    public void textSearchUsesSearchIndex() throws SQLException {
+        String tsquery = EventDAO.toPrefixTextQuery("conf");
+        assertUsesIndex("events_search_simple_idx",
+                () -> eventDAO.searchEventSummaries("conf", null, null, null, null), tsquery, tsquery);
+    }
+
+    @Test
+    public void substringSearchesUseTrigramIndexes() throws SQLException {
+        assertUsesIndex("events_location_trgm_idx", () -> eventDAO.findByLocation("parkside"),
+                "%parkside%", "parkside");
+        String email = EMAIL_PREFIX + "1234@";
+        assertUsesIndex("users_email_trgm_idx", () -> userDAO.searchByEmail(email), "%" + email + "%", email);
+    }
+
+    /**
+     * Checks the page starting in the middle of the table, where a predicate
+     * that only filters would read the whole first half.
+     */
+    private void assertKeysetPageUsesIndex(String table, String index, BaseDAO<?, ?> dao) throws SQLException {
+        Timestamp createdAt;
+        UUID id;
+        try (Statement statement = connection.createStatement();
+                ResultSet rows = statement.executeQuery("SELECT created_at, id FROM " + table
+                        + " ORDER BY created_at, id OFFSET (SELECT count(*) / 2 FROM " + table + ") LIMIT 1")) {
+            rows.next();
+            createdAt = rows.getTimestamp(1);
+            id = rows.getObject(2, UUID.class);
+        }
+        String cursor = Base64.getUrlEncoder().withoutPadding().encodeToString(
+                (createdAt.toLocalDateTime() + "|" + id).getBytes(StandardCharsets.UTF_8));
+        String plan = assertUsesIndex(index, () -> dao.findPage(cursor, 20), createdAt, createdAt, id, 21);
+        // Filtering the index from its start would show no index condition on created_at
+        boolean seeks = plan.lines().anyMatch(line -> line.contains("Index Cond") && line.contains("created_at >="));
+        assertTrue("Expected a seek on created_at:\n" + plan, seeks);
+    }
+
+    /**
+     * Runs a finder, captures the one SELECT it prepares and asserts that the
+     * plan of that SELECT, with the given parameters, scans the index.
+     * 
+     * @return The plan
+     */
+    private static String assertUsesIndex(String index, Runnable finder, Object... parameters)
+            throws SQLException {
+        QueryProfile profile = QueryProfile.start();
+        try {
+            finder.run();
+        } finally {
+            QueryProfile.stop();
+        }
+        List<String> selects = new ArrayList<>(profile.getRepeatedSelects(1).keySet());
+        assertEquals("Statements of the finder: " + selects, 1, selects.size());
+        String sql = selects.get(0);
+
+        StringBuilder plan = new StringBuilder();
+        try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+            for (int i = 0; i < parameters.length; i++) {
+                statement.setObject(i + 1, parameters[i]);
+            }
+            try (ResultSet rows = statement.executeQuery()) {
+                while (rows.next()) {
+                    plan.append(rows.getString(1)).append('\n');
+                }
+            }
+        }
+        assertTrue("Expected " + index + " in the plan of " + sql + ":\n" + plan, plan.indexOf(index) >= 0);
+        return plan.toString();
+    }
+
+    private static void deleteSeed() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DELETE FROM events WHERE creator_id IN"
+                    + " (SELECT id FROM users WHERE email LIKE '" + EMAIL_PREFIX + "%')");
+            statement.execute("DELETE FROM users WHERE email LIKE '" + EMAIL_PREFIX + "%'");
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.eventmgmt.filter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+public class ConcurrencyLimitTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(20);
+
+    @Test
+    public void rejectsRequestsBeyondLimit() {
+        ConcurrencyLimit limit = new ConcurrencyLimit(2, 1, 10, 10);
+
+        assertTrue(limit.tryAcquire());
+        assertTrue(limit.tryAcquire());
+        assertFalse(limit.tryAcquire());
+        assertEquals(2, limit.getInFlight());
+        assertEquals(1, limit.getRejected());
+
+        limit.onSuccess(FAST);
+        assertTrue(limit.tryAcquire());
+    }
+
+    @Test
+    public void growsAdditivelyWhileUsedAndFast() {
+        ConcurrencyLimit limit = new ConcurrencyLimit(4, 1, 10, 10);
+
+        // Each full round of completions adds less than one
+        for (int round = 0; round < 3; round++) {
+            fill(limit);
+            while (limit.getInFlight() > 0) {
+                limit.onSuccess(FAST);
+            }
+        }
+        assertTrue("limit " + limit.getLimit(), limit.getLimit() > 4 && limit.getLimit() <= 6);
+
+        for (int round = 0; round < 100; round++) {
+            fill(limit);
+            while (limit.getInFlight() > 0) {
+                limit.onSuccess(FAST);
+            }
+        }
+        assertEquals(10, limit.getLimit());
+    }
+
+    @Test
+    public void doesNotGrowWhileUnused() {
+        ConcurrencyLimit limit = new ConcurrencyLimit(10, 1, 100, 10);
+
+        for (int i = 0; i < 1_000; i++) {
+            assertTrue(limit.tryAcquire());
+            limit.onSuccess(FAST);
+        }
+
+        assertEquals(10, limit.getLimit());
+    }
+
+    @Test
+    public void shrinksMultiplicativelyOncePerLatencyWhenSlow() throws Exception {
+        ConcurrencyLimit limit = new ConcurrencyLimit(10, 1, 10, 10);
+        fill(limit);
+
+        limit.onSuccess(SLOW);
+        assertEquals(9, limit.getLimit());
+
+        // Requests of the same backlog completing right after do not cut it again
+        limit.onSuccess(SLOW);
+        limit.onSuccess(SLOW);
+        assertEquals(9, limit.getLimit());
+
+        Thread.sleep(TimeUnit.NANOSECONDS.toMillis(SLOW) * 2);
+        limit.onSuccess(SLOW);
+        assertEquals(8, limit.getLimit());
+    }
+
+    @Test
+    public void dropsShrinkTheLimitDownToMinimum() {
+        ConcurrencyLimit limit = new ConcurrencyLimit(3, 2, 10, 10);
+
+        for (int i = 0; i < 5; i++) {
+            assertTrue(limit.tryAcquire());
+            // No latency has been measured yet, so every drop cuts the limit
+            limit.onDropped();
+        }
+
+        assertEquals(2, limit.getLimit());
+        assertEquals(0, limit.getInFlight());
+    }
+
+    @Test
+    public void recoversAfterLatencyReturnsBelowTarget() throws Exception {
+        ConcurrencyLimit limit = new ConcurrencyLimit(10, 1, 10, 10);
+        for (int i = 0; i < 20; i++) {
+            assertTrue(limit.tryAcquire());
+            limit.onSuccess(SLOW);
+            Thread.sleep(TimeUnit.NANOSECONDS.toMillis(SLOW) * 2);
+        }
+        int shrunk = limit.getLimit();
+        assertTrue("limit " + shrunk, shrunk < 10);
+
+        for (int round = 0; round < 200; round++) {
+            fill(limit);
+            while (limit.getInFlight() > 0) {
+                limit.onSuccess(FAST);
+            }
+        }
+        assertEquals(10, limit.getLimit());
+    }
+
+    private static void fill(ConcurrencyLimit limit) {
+        while (limit.tryAcquire()) {
+            // Claim every slot
+        }
+    }
+}
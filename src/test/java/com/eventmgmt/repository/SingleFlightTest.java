@@ -0,0 +1,161 @@
+package com.eventmgmt.repository;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Test;
+
+public class SingleFlightTest {
+
+    private static final int CALLERS = 8;
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    @After
+    public void shutDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void concurrentCallsShareOneLoad() throws Exception {
+        SingleFlight<String, String> flight = new SingleFlight<>(0);
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<String> leader = executor.submit(() -> flight.get("key", () -> {
+            loads.incrementAndGet();
+            loading.countDown();
+            await(release);
+            return "result";
+        }));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+
+        List<Future<String>> followers = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            followers.add(executor.submit(() -> flight.get("key", () -> {
+                loads.incrementAndGet();
+                return "own result";
+            })));
+        }
+        // Followers arriving while the leader loads wait for it
+        Thread.sleep(100);
+        release.countDown();
+
+        assertEquals("result", leader.get(5, TimeUnit.SECONDS));
+        for (Future<String> follower : followers) {
+            assertEquals("result", follower.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    public void completedResultIsReusedWithinWindow() {
+        SingleFlight<String, Object> flight = new SingleFlight<>(60_000);
+        Object first = flight.get("key", Object::new);
+
+        assertSame(first, flight.get("key", Object::new));
+    }
+
+    @Test
+    public void completedResultIsNotReusedWithoutWindow() {
+        SingleFlight<String, Object> flight = new SingleFlight<>(0);
+        Object first = flight.get("key", Object::new);
+
+        assertNotSame(first, flight.get("key", Object::new));
+    }
+
+    @Test
+    public void differentKeysLoadSeparately() {
+        SingleFlight<String, String> flight = new SingleFlight<>(60_000);
+
+        assertEquals("a", flight.get("a", () -> "a"));
+        assertEquals("b", flight.get("b", () -> "b"));
+    }
+
+    @Test
+    public void failureReachesWaitersAndIsNotCached() throws Exception {
+        SingleFlight<String, String> flight = new SingleFlight<>(60_000);
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<String> leader = executor.submit(() -> flight.get("key", () -> {
+            loading.countDown();
+            await(release);
+            throw new IllegalStateException("database down");
+        }));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+        Future<String> follower = executor.submit(() -> flight.get("key", () -> "own result"));
+        Thread.sleep(100);
+        release.countDown();
+
+        assertFailsWith(leader, "database down");
+        assertFailsWith(follower, "database down");
+        assertEquals("retried", flight.get("key", () -> "retried"));
+    }
+
+    @Test
+    public void invalidateForgetsCompletedResults() {
+        SingleFlight<String, Object> flight = new SingleFlight<>(60_000);
+        Object first = flight.get("key", Object::new);
+
+        flight.invalidate();
+
+        assertNotSame(first, flight.get("key", Object::new));
+    }
+
+    @Test
+    public void invalidateDuringLoadStopsReuseOfItsResult() throws Exception {
+        SingleFlight<String, Object> flight = new SingleFlight<>(60_000);
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Object stale = new Object();
+
+        Future<Object> leader = executor.submit(() -> flight.get("key", () -> {
+            loading.countDown();
+            await(release);
+            return stale;
+        }));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+        flight.invalidate();
+        release.countDown();
+
+        assertSame(stale, leader.get(5, TimeUnit.SECONDS));
+        assertNotSame(stale, flight.get("key", Object::new));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            if (!latch.await(5, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("Timed out");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void assertFailsWith(Future<?> future, String message) throws Exception {
+        try {
+            future.get(5, TimeUnit.SECONDS);
+            fail("Expected a failure");
+        } catch (ExecutionException e) {
+            assertEquals(IllegalStateException.class, e.getCause().getClass());
+            assertEquals(message, e.getCause().getMessage());
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.eventmgmt.repository;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.eventmgmt.model.EventType;
+import com.eventmgmt.model.dto.EventSummary;
+
+public class UpcomingEventIndexTest {
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    @After
+    public void shutDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void reloadReplaysWritesMadeWhileQuerying() throws Exception {
+        EventSummary kept = event("kept", 1);
+        EventSummary deleted = event("deleted", 2);
+        EventSummary moved = event("moved", 3);
+        CountDownLatch querying = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        UpcomingEventIndex index = new UpcomingEventIndex(() -> {
+            querying.countDown();
+            await(release);
+            // A snapshot taken before the writes below committed
+            return Arrays.asList(kept, deleted, moved);
+        });
+
+        Future<?> reload = executor.submit(index::reload);
+        assertTrue(querying.await(5, TimeUnit.SECONDS));
+        EventSummary created = event("created", 4);
+        index.put(created);
+        index.remove(deleted.getId());
+        EventSummary movedLater = new EventSummary(moved.getId(), "moved", moved.getEventDate().plusDays(10),
+                null, EventType.CONFERENCE, null);
+        index.put(movedLater);
+        release.countDown();
+        reload.get(5, TimeUnit.SECONDS);
+
+        assertTrue(index.isLoaded());
+        assertEquals(Arrays.asList("kept", "created", "moved"), names(index.findUpcoming(10)));
+        assertEquals(movedLater.getEventDate(), index.findUpcoming(10).get(2).getEventDate());
+    }
+
+    @Test
+    public void writesAfterReloadAreNotReplayedByTheNextOne() {
+        EventSummary first = event("first", 1);
+        UpcomingEventIndex index = new UpcomingEventIndex(() -> Collections.singletonList(first));
+        index.reload();
+        index.put(event("second", 2));
+
+        // The database no longer has the second event when the next reload runs
+        index.reload();
+
+        assertEquals(Collections.singletonList("first"), names(index.findUpcoming(10)));
+    }
+
+    @Test
+    public void failedReloadKeepsContents() {
+        EventSummary first = event("first", 1);
+        List<List<EventSummary>> results = Arrays.asList(Collections.singletonList(first), null);
+        int[] calls = { 0 };
+        UpcomingEventIndex index = new UpcomingEventIndex(() -> {
+            List<EventSummary> result = results.get(calls[0]++);
+            if (result == null) {
+                throw new IllegalStateException("database down");
+            }
+            return result;
+        });
+        index.reload();
+
+        try {
+            index.reload();
+            fail("Expected the reload to fail");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+        index.put(event("second", 2));
+
+        assertEquals(Arrays.asList("first", "second"), names(index.findUpcoming(10)));
+    }
+
+    @Test
+    public void findUpcomingReturnsSoonestFirstUpToLimit() {
+        UpcomingEventIndex index = new UpcomingEventIndex(Collections::emptyList);
+        index.put(event("third", 3));
+        index.put(event("first", 1));
+        index.put(event("second", 2));
+
+        assertEquals(Arrays.asList("first", "second"), names(index.findUpcoming(2)));
+        assertTrue(index.findUpcoming(0).isEmpty());
+    }
+
+    @Test
+    public void puttingPastEventRemovesIt() {
+        UpcomingEventIndex index = new UpcomingEventIndex(Collections::emptyList);
+        EventSummary event = event("event", 1);
+        index.put(event);
+
+        index.put(new EventSummary(event.getId(), "event", LocalDateTime.now().minusDays(1), null,
+                EventType.CONFERENCE, null));
+
+        assertTrue(index.findUpcoming(10).isEmpty());
+    }
+
+    @Test
+    public void expireRemovesStartedEvents() throws Exception {
+        UpcomingEventIndex index = new UpcomingEventIndex(Collections::emptyList);
+        index.put(new EventSummary(UUID.randomUUID(), "soon", LocalDateTime.now().plusNanos(50_000_000), null,
+                EventType.CONFERENCE, null));
+        index.put(event("later", 1));
+
+        Thread.sleep(100);
+        index.expire();
+
+        assertEquals(Collections.singletonList("later"), names(index.findUpcoming(10)));
+        assertFalse(index.isLoaded());
+    }
+
+    private static EventSummary event(String name, int daysAhead) {
+        return new EventSummary(UUID.randomUUID(), name, LocalDateTime.now().plusDays(daysAhead), null,
+                EventType.CONFERENCE, null);
+    }
+
+    private static List<String> names(List<EventSummary> events) {
+        return events.stream().map(EventSummary::getName).collect(Collectors.toList());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            if (!latch.await(5, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("Timed out");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package com.eventmgmt.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Proxy;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.junit.Test;
+
+public class ConditionalGetTest {
+
+    private static final String TAG = "\"c-1-2-abc\"";
+    private static final LocalDateTime LAST_MODIFIED = LocalDateTime.of(2026, 5, 1, 12, 0, 30, 250_000_000);
+
+    private final Map<String, String> requestHeaders = new HashMap<>();
+    private final Map<String, String[]> parameters = new LinkedHashMap<>();
+    private final Map<String, Object> responseHeaders = new HashMap<>();
+    private Integer status;
+
+    @Test
+    public void matchingTagIsNotModified() {
+        requestHeaders.put("If-None-Match", TAG);
+
+        assertTrue(check(null));
+        assertEquals(Integer.valueOf(HttpServletResponse.SC_NOT_MODIFIED), status);
+        assertEquals(TAG, responseHeaders.get("ETag"));
+        assertEquals("no-cache", responseHeaders.get("Cache-Control"));
+    }
+
+    @Test
+    public void otherTagIsModified() {
+        requestHeaders.put("If-None-Match", "\"c-1-2-abd\"");
+
+        assertFalse(check(null));
+        assertNull(status);
+        assertEquals(TAG, responseHeaders.get("ETag"));
+    }
+
+    @Test
+    public void weakTagsMatchWeakly() {
+        requestHeaders.put("If-None-Match", "W/" + TAG);
+
+        assertTrue(check(null));
+    }
+
+    @Test
+    public void anyTagInListOrWildcardMatches() {
+        requestHeaders.put("If-None-Match", "\"x\", W/\"y\" ,  " + TAG);
+        assertTrue(check(null));
+
+        requestHeaders.put("If-None-Match", "*");
+        assertTrue(check(null));
+    }
+
+    @Test
+    public void unmodifiedSinceLastModifiedSecond() {
+        long lastModifiedMillis = toMillis(LAST_MODIFIED);
+        // HTTP dates drop the milliseconds
+        requestHeaders.put("If-Modified-Since", Long.toString(lastModifiedMillis / 1000 * 1000));
+
+        assertTrue(check(LAST_MODIFIED));
+        assertEquals(Integer.valueOf(HttpServletResponse.SC_NOT_MODIFIED), status);
+        assertEquals(lastModifiedMillis, responseHeaders.get("Last-Modified"));
+    }
+
+    @Test
+    public void modifiedAfterIfModifiedSince() {
+        requestHeaders.put("If-Modified-Since", Long.toString(toMillis(LAST_MODIFIED.minusSeconds(1))));
+
+        assertFalse(check(LAST_MODIFIED));
+        assertNull(status);
+    }
+
+    @Test
+    public void ifNoneMatchTakesPrecedence() {
+        requestHeaders.put("If-None-Match", "\"stale\"");
+        requestHeaders.put("If-Modified-Since", Long.toString(toMillis(LAST_MODIFIED.plusDays(1))));
+
+        assertFalse(check(LAST_MODIFIED));
+    }
+
+    @Test
+    public void unparseableOrUnusableDatesAreIgnored() {
+        requestHeaders.put("If-Modified-Since", "yesterday");
+        assertFalse(check(LAST_MODIFIED));
+
+        // Without a Last-Modified there is nothing to compare against
+        requestHeaders.put("If-Modified-Since", Long.toString(toMillis(LAST_MODIFIED)));
+        assertFalse(check(null));
+        assertFalse(responseHeaders.containsKey("Last-Modified"));
+    }
+
+    @Test
+    public void versionSeparatesSecondsAndNanos() {
+        // 0x1 s + 0x23 ns and 0x12 s + 0x3 ns would both read "123" when concatenated
+        String a = ConditionalGet.version(at(0x1, 0x23));
+        String b = ConditionalGet.version(at(0x12, 0x3));
+
+        assertEquals("1.23", a);
+        assertEquals("12.3", b);
+        assertEquals("0", ConditionalGet.version(null));
+    }
+
+    @Test
+    public void equivalentQueriesShareTheTag() {
+        parameters.put("type", new String[] { "CONFERENCE" });
+        parameters.put("location", new String[] { "New York" });
+        String tag = ConditionalGet.collectionTag("f", request());
+
+        parameters.clear();
+        parameters.put("location", new String[] { "New York" });
+        parameters.put("type", new String[] { "CONFERENCE" });
+
+        assertEquals(tag, ConditionalGet.collectionTag("f", request()));
+        assertTrue(tag, tag.matches("\"c-f-[A-Za-z0-9_-]{22}\""));
+    }
+
+    @Test
+    public void differentQueriesGetDifferentTags() {
+        // "Aa" and "BB" have the same String.hashCode
+        parameters.put("location", new String[] { "Aa" });
+        String aa = ConditionalGet.collectionTag("f", request());
+        parameters.put("location", new String[] { "BB" });
+        String bb = ConditionalGet.collectionTag("f", request());
+        // Values cannot pass for separators
+        parameters.put("location", new String[] { "x&type=y" });
+        String embedded = ConditionalGet.collectionTag("f", request());
+        parameters.put("location", new String[] { "x" });
+        parameters.put("type", new String[] { "y" });
+        String separate = ConditionalGet.collectionTag("f", request());
+
+        assertNotEquals(aa, bb);
+        assertNotEquals(embedded, separate);
+        assertNotEquals(separate, ConditionalGet.collectionTag("g", request()));
+    }
+
+    private boolean check(LocalDateTime lastModified) {
+        status = null;
+        responseHeaders.clear();
+        return ConditionalGet.checkNotModified(request(), response(), TAG, lastModified);
+    }
+
+    private static LocalDateTime at(long epochSecond, int nanos) {
+        return LocalDateTime.ofInstant(Instant.ofEpochSecond(epochSecond, nanos), ZoneId.systemDefault());
+    }
+
+    private static long toMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    /**
+     * A request with the headers and parameters of this test. Date headers
+     * are given in epoch milliseconds; anything else fails to parse, as in
+     * the container.
+     */
+    private HttpServletRequest request() {
+        return (HttpServletRequest) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] { HttpServletRequest.class }, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getHeader":
+                            return requestHeaders.get(args[0]);
+                        case "getDateHeader":
+                            String value = requestHeaders.get(args[0]);
+                            if (value == null) {
+                                return -1L;
+                            }
+                            try {
+                                return Long.parseLong(value);
+                            } catch (NumberFormatException e) {
+                                throw new IllegalArgumentException(value);
+                            }
+                        case "getParameterMap":
+                            return new LinkedHashMap<>(parameters);
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+
+    private HttpServletResponse response() {
+        return (HttpServletResponse) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] { HttpServletResponse.class }, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "setHeader":
+                        case "setDateHeader":
+                            responseHeaders.put((String) args[0], args[1]);
+                            return null;
+                        case "setStatus":
+                            status = (Integer) args[0];
+                            return null;
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+}
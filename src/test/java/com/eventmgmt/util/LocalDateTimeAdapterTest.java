@@ -0,0 +1,49 @@
+package com.eventmgmt.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.time.LocalDateTime;
+
+import org.junit.Test;
+
+import com.google.gson.JsonSyntaxException;
+
+public class LocalDateTimeAdapterTest {
+
+    private final LocalDateTimeAdapter adapter = new LocalDateTimeAdapter();
+
+    @Test
+    public void writesIsoLocalDateTime() {
+        assertEquals("\"2026-04-10T18:30:00\"", adapter.toJson(LocalDateTime.of(2026, 4, 10, 18, 30)));
+        assertEquals("\"2026-04-10T18:30:05.123456789\"",
+                adapter.toJson(LocalDateTime.of(2026, 4, 10, 18, 30, 5, 123_456_789)));
+        assertEquals("null", adapter.toJson(null));
+    }
+
+    @Test
+    public void readsWhatItWrites() throws Exception {
+        for (LocalDateTime value : new LocalDateTime[] {
+                LocalDateTime.of(2026, 4, 10, 18, 30),
+                LocalDateTime.of(2026, 4, 10, 18, 30, 5, 120_000_000),
+                LocalDateTime.of(2026, 4, 10, 18, 30, 5, 123_456_789) }) {
+            assertEquals(value, adapter.fromJson(adapter.toJson(value)));
+        }
+        assertNull(adapter.fromJson("null"));
+    }
+
+    @Test
+    public void acceptsMinutePrecision() throws Exception {
+        assertEquals(LocalDateTime.of(2026, 4, 10, 18, 30), adapter.fromJson("\"2026-04-10T18:30\""));
+    }
+
+    @Test(expected = JsonSyntaxException.class)
+    public void rejectsDateWithoutTime() throws Exception {
+        adapter.fromJson("\"2026-04-10\"");
+    }
+
+    @Test(expected = JsonSyntaxException.class)
+    public void rejectsOffsets() throws Exception {
+        adapter.fromJson("\"2026-04-10T18:30:00Z\"");
+    }
+}
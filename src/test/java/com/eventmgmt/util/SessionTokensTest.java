@@ -0,0 +1,91 @@
+package com.eventmgmt.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.eventmgmt.model.UserRole;
+
+import java.util.Arrays;
+import java.util.Base64;
+
+import org.junit.Test;
+
+public class SessionTokensTest {
+
+    private static final String OLD_KEY = "old:" + secret(1);
+    private static final String NEW_KEY = "new:" + secret(2);
+
+    private final SessionTokens tokens = new SessionTokens(NEW_KEY);
+
+    @Test
+    public void accessTokenCarriesTheClaims() {
+        long before = System.currentTimeMillis();
+        SessionTokens.Claims claims = tokens.verify(tokens.issue("user-1", UserRole.ADMIN));
+
+        assertNotNull(claims);
+        assertEquals("user-1", claims.userId());
+        assertEquals(UserRole.ADMIN, claims.role());
+        assertTrue(claims.issuedAt() >= before);
+        assertEquals(claims.issuedAt() + SessionTokens.ACCESS_TTL_SECONDS * 1000, claims.expiresAt());
+    }
+
+    @Test
+    public void tokenTypesAreNotInterchangeable() {
+        String access = tokens.issue("user-1", UserRole.ORGANIZER);
+        String refresh = tokens.issueRefresh("user-1", UserRole.ORGANIZER);
+
+        assertNull(tokens.verifyRefresh(access));
+        assertNull(tokens.verify(refresh));
+        assertNotNull(tokens.verifyRefresh(refresh));
+    }
+
+    @Test
+    public void tamperedTokenIsRejected() {
+        String token = tokens.issue("user-1", UserRole.ORGANIZER);
+
+        assertNull(tokens.verify(token.replace(".ORGANIZER.", ".ADMIN.")));
+        assertNull(tokens.verify(token.substring(0, token.length() - 2)));
+        assertNull(tokens.verify(token + ".extra"));
+        assertNull(tokens.verify("garbage"));
+        assertNull(tokens.verify(null));
+    }
+
+    @Test
+    public void revokedTokenIsRejected() {
+        String access = tokens.issue("user-1", UserRole.ORGANIZER);
+        String refresh = tokens.issueRefresh("user-1", UserRole.ORGANIZER);
+
+        tokens.revoke(access);
+        tokens.revoke(refresh);
+
+        assertNull(tokens.verify(access));
+        assertNull(tokens.verifyRefresh(refresh));
+        assertNotNull(tokens.verify(tokens.issue("user-1", UserRole.ORGANIZER)));
+    }
+
+    @Test
+    public void rotatedKeyStillVerifiesUntilDropped() {
+        String token = new SessionTokens(OLD_KEY).issue("user-1", UserRole.ORGANIZER);
+
+        assertNotNull(new SessionTokens(NEW_KEY + "," + OLD_KEY).verify(token));
+        assertNull(tokens.verify(token));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void missingKeysFailFast() {
+        new SessionTokens(null);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void shortKeyIsRefused() {
+        new SessionTokens("short:" + Base64.getEncoder().encodeToString(new byte[16]));
+    }
+
+    private static String secret(int seed) {
+        byte[] secret = new byte[32];
+        Arrays.fill(secret, (byte) seed);
+        return Base64.getEncoder().encodeToString(secret);
+    }
+}
@@ -0,0 +1,270 @@
+package com.eventmgmt.util.json;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+import java.lang.reflect.Field;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.Test;
+
+import com.eventmgmt.model.BaseEntity;
+import com.eventmgmt.model.ConfirmedRSVP;
+import com.eventmgmt.model.Event;
+import com.eventmgmt.model.EventType;
+import com.eventmgmt.model.PendingRSVP;
+import com.eventmgmt.model.User;
+import com.eventmgmt.model.UserRole;
+import com.eventmgmt.model.dto.EventSummary;
+import com.eventmgmt.util.LocalDateTimeAdapter;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.reflect.TypeToken;
+
+/**
+ * Checks the streaming adapters against the reflective Gson the controllers
+ * used before. Apart from the documented differences, references written as
+ * ids and the user's password and events left out, both produce the same
+ * JSON.
+ */
+public class GsonFactoryTest {
+
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2026, 3, 1, 9, 15, 30);
+    private static final LocalDateTime UPDATED_AT = LocalDateTime.of(2026, 3, 2, 10, 0, 0, 500_000_000);
+
+    private final Gson gson = GsonFactory.getGson();
+
+    /** The configuration of EventController before the adapters. */
+    private final Gson reflective = new GsonBuilder()
+            .registerTypeAdapter(LocalDateTime.class, new LocalDateTimeAdapter())
+            .create();
+
+    @Test
+    public void eventMatchesGoldenJson() {
+        Event event = event();
+
+        assertEquals("{\"id\":\"" + event.getId() + "\",\"name\":\"Spring Conference\","
+                + "\"description\":\"Talks and \\\"workshops\\\"\",\"eventDate\":\"2026-04-10T18:30:00\","
+                + "\"location\":\"Parkside\",\"type\":\"CONFERENCE\",\"capacity\":250,"
+                + "\"imgUrl\":\"https://example.com/spring.png\",\"creatorId\":\"" + event.getCreatorId() + "\","
+                + "\"createdAt\":\"2026-03-01T09:15:30\",\"updatedAt\":\"2026-03-02T10:00:00.5\"}",
+                gson.toJson(event));
+    }
+
+    @Test
+    public void eventMatchesReflectiveOutputWithCreatorAsId() {
+        Event event = event();
+
+        JsonObject expected = reflectiveTree(event);
+        expected.remove("creator");
+        expected.addProperty("creatorId", event.getCreatorId().toString());
+        assertEquals(expected, tree(event));
+    }
+
+    @Test
+    public void userMatchesReflectiveOutputWithoutSecrets() {
+        User user = user();
+
+        JsonObject expected = reflectiveTree(user);
+        expected.remove("password");
+        expected.remove("createdEvents");
+        assertEquals(expected, tree(user));
+    }
+
+    @Test
+    public void rsvpsMatchReflectiveOutputWithEventAsId() {
+        Event event = event();
+        PendingRSVP pending = stamped(new PendingRSVP());
+        pending.setEvent(event);
+        pending.setEmail("guest@example.com");
+        ConfirmedRSVP confirmed = stamped(new ConfirmedRSVP());
+        confirmed.setEvent(event);
+        confirmed.setEmail("guest@example.com");
+        confirmed.setQrCode("QR-123");
+
+        for (BaseEntity rsvp : Arrays.asList(pending, confirmed)) {
+            JsonObject expected = reflectiveTree(rsvp);
+            expected.remove("event");
+            expected.addProperty("eventId", event.getId().toString());
+            assertEquals(expected, tree(rsvp));
+        }
+    }
+
+    @Test
+    public void summaryMatchesReflectiveOutput() {
+        EventSummary summary = EventSummary.from(event());
+
+        assertEquals(reflectiveTree(summary), tree(summary));
+    }
+
+    @Test
+    public void nullMembersAreLeftOut() {
+        Event event = new Event();
+        event.setName("Unnamed");
+
+        assertEquals("{\"name\":\"Unnamed\"}", gson.toJson(event));
+        assertEquals(reflective.toJson(event), gson.toJson(event));
+    }
+
+    @Test
+    public void eventRoundTrips() {
+        Event event = event();
+
+        Event read = gson.fromJson(gson.toJson(event), Event.class);
+
+        assertEquals(event.getName(), read.getName());
+        assertEquals(event.getDescription(), read.getDescription());
+        assertEquals(event.getEventDate(), read.getEventDate());
+        assertEquals(event.getLocation(), read.getLocation());
+        assertEquals(event.getType(), read.getType());
+        assertEquals(event.getCapacity(), read.getCapacity());
+        assertEquals(event.getImgUrl(), read.getImgUrl());
+        assertEquals(event.getCreatorId(), read.getCreatorId());
+    }
+
+    @Test
+    public void serverAssignedMembersAreIgnoredOnInput() {
+        Event read = gson.fromJson(gson.toJson(event()), Event.class);
+
+        assertNull(read.getId());
+        assertNull(read.getCreatedAt());
+        assertNull(read.getUpdatedAt());
+    }
+
+    @Test
+    public void userRoundTripsAndAcceptsPassword() {
+        User read = gson.fromJson("{\"id\":\"" + UUID.randomUUID() + "\",\"email\":\"ann@example.com\","
+                + "\"password\":\"secret\",\"role\":\"organizer\",\"unknown\":[1,{\"a\":2}]}", User.class);
+
+        assertEquals("ann@example.com", read.getEmail());
+        assertEquals("secret", read.getPassword());
+        assertEquals(UserRole.ORGANIZER, read.getRole());
+        assertNull(read.getId());
+        assertEquals("{\"email\":\"ann@example.com\",\"role\":\"ORGANIZER\"}", gson.toJson(read));
+    }
+
+    @Test
+    public void rsvpsRoundTrip() {
+        Event event = event();
+        ConfirmedRSVP confirmed = stamped(new ConfirmedRSVP());
+        confirmed.setEvent(event);
+        confirmed.setEmail("guest@example.com");
+        confirmed.setQrCode("QR-123");
+
+        ConfirmedRSVP read = gson.fromJson(gson.toJson(confirmed), ConfirmedRSVP.class);
+
+        assertEquals(event.getId(), read.getEvent().getId());
+        assertEquals("guest@example.com", read.getEmail());
+        assertEquals("QR-123", read.getQrCode());
+
+        PendingRSVP pending = gson.fromJson("{\"eventId\":\"" + event.getId() + "\",\"email\":\"a@b.c\"}",
+                PendingRSVP.class);
+        assertEquals(event.getId(), pending.getEvent().getId());
+        assertEquals("a@b.c", pending.getEmail());
+    }
+
+    @Test
+    public void summaryRoundTripsIncludingId() {
+        EventSummary summary = EventSummary.from(event());
+
+        EventSummary read = gson.fromJson(gson.toJson(summary), EventSummary.class);
+
+        assertEquals(gson.toJson(summary), gson.toJson(read));
+        assertEquals(summary.getId(), read.getId());
+    }
+
+    @Test
+    public void listsUseTheAdapters() {
+        List<EventSummary> summaries = Arrays.asList(EventSummary.from(event()), EventSummary.from(event()));
+
+        List<EventSummary> read = gson.fromJson(gson.toJson(summaries), new TypeToken<List<EventSummary>>() {
+        }.getType());
+
+        assertEquals(gson.toJson(summaries), gson.toJson(read));
+    }
+
+    @Test
+    public void reflectiveOutputIsStillAccepted() {
+        // Clients built against the old output send the creator and event as objects
+        Event event = event();
+        Event read = gson.fromJson(reflective.toJson(event), Event.class);
+        assertEquals(event.getCreatorId(), read.getCreatorId());
+        assertEquals(event.getName(), read.getName());
+
+        PendingRSVP pending = stamped(new PendingRSVP());
+        pending.setEvent(event);
+        pending.setEmail("guest@example.com");
+        assertEquals(event.getId(), gson.fromJson(reflective.toJson(pending), PendingRSVP.class).getEvent().getId());
+    }
+
+    @Test
+    public void invalidValuesAreRejected() {
+        String[] invalid = {
+                "{\"type\":\"GALA\"}",
+                "{\"eventDate\":\"next friday\"}",
+                "{\"capacity\":\"many\"}",
+                "{\"creatorId\":\"not-a-uuid\"}",
+        };
+        for (String json : invalid) {
+            try {
+                gson.fromJson(json, Event.class);
+                fail("Accepted " + json);
+            } catch (JsonParseException e) {
+                // expected
+            }
+        }
+    }
+
+    private JsonObject tree(Object value) {
+        return gson.toJsonTree(value).getAsJsonObject();
+    }
+
+    private JsonObject reflectiveTree(Object value) {
+        return reflective.toJsonTree(value).getAsJsonObject();
+    }
+
+    private static Event event() {
+        Event event = stamped(new Event());
+        event.setName("Spring Conference");
+        event.setDescription("Talks and \"workshops\"");
+        event.setEventDate(LocalDateTime.of(2026, 4, 10, 18, 30));
+        event.setLocation("Parkside");
+        event.setType(EventType.CONFERENCE);
+        event.setCapacity(250);
+        event.setImgUrl("https://example.com/spring.png");
+        event.setCreator(user());
+        return event;
+    }
+
+    private static User user() {
+        User user = stamped(new User());
+        user.setEmail("organizer@example.com");
+        user.setPassword("hashed");
+        user.setRole(UserRole.ORGANIZER);
+        return user;
+    }
+
+    /**
+     * Gives the entity an id and fixed audit timestamps, as if it had been
+     * loaded.
+     */
+    private static <T extends BaseEntity> T stamped(T entity) {
+        entity.setId(UUID.randomUUID());
+        try {
+            for (String name : new String[] { "createdAt", "updatedAt" }) {
+                Field field = BaseEntity.class.getDeclaredField(name);
+                field.setAccessible(true);
+                field.set(entity, name.equals("createdAt") ? CREATED_AT : UPDATED_AT);
+            }
+        } catch (ReflectiveOperationException e) {
+            throw new AssertionError(e);
+        }
+        return entity;
+    }
+}